@@ -0,0 +1,216 @@
+package com.puzzlegame.app;
+
+import android.content.Context;
+import android.media.AudioAttributes;
+import android.media.AudioFormat;
+import android.media.AudioTrack;
+import android.os.Build;
+import android.os.Process;
+
+import com.puzzlegame.core.ToneBank;
+
+import java.io.File;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * One streaming AudioTrack fed by one mixer thread. Sounds are triggered by
+ * posting an int command into a single-producer ring buffer, which neither
+ * allocates nor blocks, so the UI thread pays only a few array writes.
+ *
+ * <p>The mixer sums up to {@link #MAX_VOICES} voices from a pre-rendered
+ * {@link ToneBank}, and parks (with the track paused) once everything has
+ * finished playing.
+ */
+public class AudioEngine implements Runnable {
+    public static final int SAMPLE_RATE = ToneBank.SAMPLE_RATE;
+
+    public static final int SOUND_TAP = 0;
+    public static final int SOUND_SWAP = 1;
+    public static final int SOUND_SHUFFLE = 2;
+    public static final int SOUND_CORRECT_FIRST = 3;
+    public static final int SOUND_WIN_FIRST = SOUND_CORRECT_FIRST + 3;
+
+    // {soundId, startMs} steps; spacing matches the old play-then-sleep timing.
+    static final int[][] CORRECT_JINGLE = {
+        {SOUND_CORRECT_FIRST, 0}, {SOUND_CORRECT_FIRST + 1, 150}, {SOUND_CORRECT_FIRST + 2, 300},
+    };
+    static final int[][] WIN_JINGLE = {
+        {SOUND_WIN_FIRST, 0}, {SOUND_WIN_FIRST + 1, 270}, {SOUND_WIN_FIRST + 2, 540},
+        {SOUND_WIN_FIRST + 3, 810}, {SOUND_WIN_FIRST + 4, 1080}, {SOUND_WIN_FIRST + 5, 1350},
+    };
+
+    private static final int MAX_VOICES = 16;
+    private static final int BUFFER_FRAMES = 256;
+    private static final int QUEUE_SIZE = 64;
+    private static final int QUEUE_MASK = QUEUE_SIZE - 1;
+
+    private static AudioEngine instance;
+
+    private final File bankFile;
+    private final int[] queue = new int[QUEUE_SIZE];
+    private final AtomicInteger head = new AtomicInteger();
+    private final AtomicInteger tail = new AtomicInteger();
+    private final Thread thread;
+
+    // Mixer-thread state.
+    private ToneBank bank;
+    private final short[][] voiceSamples = new short[MAX_VOICES][];
+    private final int[] voicePosition = new int[MAX_VOICES];
+    private final long[] voiceStart = new long[MAX_VOICES];
+    private final boolean[] voiceActive = new boolean[MAX_VOICES];
+    private final short[] mixBuffer = new short[BUFFER_FRAMES];
+    private long frame;
+
+    public static synchronized AudioEngine getInstance(Context context) {
+        if (instance == null) {
+            instance = new AudioEngine(new File(context.getCacheDir(), "tones.pcm"));
+        }
+        return instance;
+    }
+
+    private AudioEngine(File bankFile) {
+        this.bankFile = bankFile;
+        thread = new Thread(this, "AudioMixer");
+        thread.setDaemon(true);
+        thread.start();
+    }
+
+    public void play(int soundId) {
+        post(soundId, 0);
+    }
+
+    public void play(int[][] jingle) {
+        for (int[] step : jingle) {
+            post(step[0], step[1]);
+        }
+    }
+
+    /** Queues {@code soundId} to start {@code delayMs} from now; drops it if the queue is full. */
+    public void post(int soundId, int delayMs) {
+        int t = tail.get();
+        int next = (t + 1) & QUEUE_MASK;
+        if (next == head.get()) return;
+        queue[t] = soundId | (delayMs << 8);
+        tail.lazySet(next);
+        LockSupport.unpark(thread);
+    }
+
+    @Override
+    public void run() {
+        Process.setThreadPriority(Process.THREAD_PRIORITY_AUDIO);
+        // Commands posted meanwhile wait in the queue.
+        long loadStart = Metrics.begin(Metrics.TONE_BANK);
+        bank = ToneBank.loadOrRender(bankFile);
+        Metrics.end(Metrics.TONE_BANK, loadStart);
+
+        int minBuffer = AudioTrack.getMinBufferSize(SAMPLE_RATE,
+            AudioFormat.CHANNEL_OUT_MONO, AudioFormat.ENCODING_PCM_16BIT);
+        int bufferBytes = Math.max(minBuffer, BUFFER_FRAMES * 2 * 2);
+        AudioTrack track = createTrack(bufferBytes);
+        // Silence to write before pausing, so the tail of the last sound drains.
+        int drainFrames = bufferBytes / 2;
+        int idleFrames = drainFrames;
+        boolean playing = false;
+
+        while (true) {
+            drainQueue();
+
+            if (!hasActiveVoices() && idleFrames >= drainFrames) {
+                if (playing) {
+                    track.pause();
+                    playing = false;
+                }
+                LockSupport.park(this);
+                continue;
+            }
+
+            if (!playing) {
+                track.play();
+                playing = true;
+            }
+
+            long mixStart = Metrics.begin(Metrics.AUDIO_MIX);
+            boolean audible = mix();
+            Metrics.end(Metrics.AUDIO_MIX, mixStart);
+            idleFrames = audible ? 0 : idleFrames + BUFFER_FRAMES;
+            track.write(mixBuffer, 0, BUFFER_FRAMES);
+            frame += BUFFER_FRAMES;
+        }
+    }
+
+    private AudioTrack createTrack(int bufferBytes) {
+        AudioTrack.Builder builder = new AudioTrack.Builder()
+            .setAudioAttributes(new AudioAttributes.Builder()
+                .setUsage(AudioAttributes.USAGE_GAME)
+                .setContentType(AudioAttributes.CONTENT_TYPE_SONIFICATION)
+                .build())
+            .setAudioFormat(new AudioFormat.Builder()
+                .setSampleRate(SAMPLE_RATE)
+                .setChannelMask(AudioFormat.CHANNEL_OUT_MONO)
+                .setEncoding(AudioFormat.ENCODING_PCM_16BIT)
+                .build())
+            .setBufferSizeInBytes(bufferBytes)
+            .setTransferMode(AudioTrack.MODE_STREAM);
+        if (Build.VERSION.SDK_INT >= Build.VERSION_CODES.O) {
+            builder.setPerformanceMode(AudioTrack.PERFORMANCE_MODE_LOW_LATENCY);
+        }
+        return builder.build();
+    }
+
+    private void drainQueue() {
+        int h = head.get();
+        int t = tail.get();
+        while (h != t) {
+            int command = queue[h];
+            h = (h + 1) & QUEUE_MASK;
+            startVoice(command & 0xFF, (command >>> 8) * (long) SAMPLE_RATE / 1000);
+        }
+        head.lazySet(h);
+    }
+
+    private void startVoice(int soundId, long delayFrames) {
+        if (soundId >= bank.size()) return;
+
+        // Take a free voice, or steal the one that started first.
+        int slot = 0;
+        for (int v = 0; v < MAX_VOICES; v++) {
+            if (!voiceActive[v]) {
+                slot = v;
+                break;
+            }
+            if (voiceStart[v] < voiceStart[slot]) slot = v;
+        }
+
+        voiceSamples[slot] = bank.get(soundId);
+        voicePosition[slot] = 0;
+        voiceStart[slot] = frame + delayFrames;
+        voiceActive[slot] = true;
+    }
+
+    private boolean hasActiveVoices() {
+        for (int v = 0; v < MAX_VOICES; v++) {
+            if (voiceActive[v]) return true;
+        }
+        return false;
+    }
+
+    private boolean mix() {
+        boolean audible = false;
+        for (int f = 0; f < BUFFER_FRAMES; f++) {
+            long now = frame + f;
+            int sum = 0;
+            for (int v = 0; v < MAX_VOICES; v++) {
+                if (!voiceActive[v] || now < voiceStart[v]) continue;
+                short[] samples = voiceSamples[v];
+                sum += samples[voicePosition[v]];
+                audible = true;
+                if (++voicePosition[v] >= samples.length) {
+                    voiceActive[v] = false;
+                }
+            }
+            mixBuffer[f] = (short) Math.max(Short.MIN_VALUE, Math.min(Short.MAX_VALUE, sum));
+        }
+        return audible;
+    }
+}
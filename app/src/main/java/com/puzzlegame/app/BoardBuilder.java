@@ -0,0 +1,63 @@
+package com.puzzlegame.app;
+
+import android.graphics.Bitmap;
+import android.os.Handler;
+import android.os.Looper;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Prepares boards on a background thread. Every request bumps a version and
+ * cancels the previous job, so only the latest (image, gridSize, boardSize)
+ * ever reaches the callback.
+ */
+public class BoardBuilder {
+
+    public interface Callback {
+        void onBoardBuilt(PreparedBoard board);
+    }
+
+    // Single worker that exits when idle, so a detached view does not pin a thread.
+    private final ExecutorService executor = new ThreadPoolExecutor(
+        0, 1, 10, TimeUnit.SECONDS, new LinkedBlockingQueue<>());
+    private final Handler mainHandler = new Handler(Looper.getMainLooper());
+    private final AtomicInteger version = new AtomicInteger();
+    private Future<?> pending;
+
+    public void request(Bitmap source, int gridSize, int boardSize, Callback callback) {
+        int requestVersion = version.incrementAndGet();
+        if (pending != null) {
+            pending.cancel(true);
+        }
+
+        pending = executor.submit(() -> {
+            if (version.get() != requestVersion) return;
+            long start = Metrics.begin(Metrics.BOARD_BUILD);
+            PreparedBoard board;
+            try {
+                board = PreparedBoard.build(source, gridSize, boardSize);
+            } finally {
+                Metrics.end(Metrics.BOARD_BUILD, start);
+            }
+            if (version.get() != requestVersion) return;
+            mainHandler.post(() -> {
+                if (version.get() == requestVersion) {
+                    callback.onBoardBuilt(board);
+                }
+            });
+        });
+    }
+
+    public void cancel() {
+        version.incrementAndGet();
+        if (pending != null) {
+            pending.cancel(true);
+            pending = null;
+        }
+    }
+}
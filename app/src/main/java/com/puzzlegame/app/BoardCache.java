@@ -0,0 +1,81 @@
+package com.puzzlegame.app;
+
+import android.util.LruCache;
+
+import java.util.Locale;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Process-wide LRU of prepared boards, budgeted in bitmap bytes. Keys combine
+ * an image id handed out per loaded image with the grid and board size.
+ */
+public class BoardCache {
+    private static final int DEFAULT_BUDGET_DIVISOR = 8;
+    private static BoardCache instance;
+
+    private final AtomicInteger nextImageId = new AtomicInteger();
+    private final LruCache<String, PreparedBoard> cache;
+
+    public static synchronized BoardCache getInstance() {
+        if (instance == null) {
+            long budget = Runtime.getRuntime().maxMemory() / DEFAULT_BUDGET_DIVISOR;
+            instance = new BoardCache((int) Math.min(budget, Integer.MAX_VALUE));
+        }
+        return instance;
+    }
+
+    public BoardCache(int maxBytes) {
+        cache = new LruCache<String, PreparedBoard>(maxBytes) {
+            @Override
+            protected int sizeOf(String key, PreparedBoard board) {
+                return board.getImage().getByteCount();
+            }
+        };
+    }
+
+    public int newImageId() {
+        return nextImageId.incrementAndGet();
+    }
+
+    public PreparedBoard get(int imageId, int gridSize, int boardSize) {
+        return cache.get(key(imageId, gridSize, boardSize));
+    }
+
+    public void put(int imageId, int boardSize, PreparedBoard board) {
+        cache.put(key(imageId, board.getGridSize(), boardSize), board);
+    }
+
+    public void clear() {
+        cache.evictAll();
+    }
+
+    public int hitCount() {
+        return cache.hitCount();
+    }
+
+    public int missCount() {
+        return cache.missCount();
+    }
+
+    public int evictionCount() {
+        return cache.evictionCount();
+    }
+
+    public int sizeBytes() {
+        return cache.size();
+    }
+
+    public int maxBytes() {
+        return cache.maxSize();
+    }
+
+    private static String key(int imageId, int gridSize, int boardSize) {
+        return imageId + ":" + gridSize + ":" + boardSize;
+    }
+
+    @Override
+    public String toString() {
+        return String.format(Locale.US, "BoardCache[%d/%d bytes, hits=%d, misses=%d, evictions=%d]",
+            sizeBytes(), maxBytes(), hitCount(), missCount(), evictionCount());
+    }
+}
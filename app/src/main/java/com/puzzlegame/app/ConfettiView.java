@@ -4,19 +4,21 @@ import android.content.Context;
 import android.graphics.Canvas;
 import android.graphics.Color;
 import android.graphics.Paint;
+import android.graphics.Path;
+import android.os.Build;
 import android.util.AttributeSet;
+import android.view.Choreographer;
 import android.view.View;
 
-import java.util.ArrayList;
-import java.util.List;
-import java.util.Random;
+import com.puzzlegame.core.ConfettiSystem;
 
-public class ConfettiView extends View {
+public class ConfettiView extends View implements Choreographer.FrameCallback {
+
+    private static final int DEFAULT_PARTICLES = 100;
+    private static final int MAX_PARTICLES = 4096;
+    // Longer gaps (e.g. after a stall) are clamped so particles don't jump.
+    private static final long MAX_FRAME_NANOS = 50_000_000L;
 
-    private final List<Confetti> confettiList;
-    private final Paint paint;
-    private final Random random;
-    private boolean isAnimating = false;
     private final int[] colors = {
         Color.parseColor("#FF6B6B"),
         Color.parseColor("#4ECDC4"),
@@ -26,96 +28,111 @@ public class ConfettiView extends View {
         Color.parseColor("#DDA0DD")
     };
 
-    private static class Confetti {
-        float x, y;
-        float speedY;
-        float speedX;
-        float rotation;
-        float rotationSpeed;
-        int color;
-        float size;
-    }
+    private final ConfettiSystem system = new ConfettiSystem(MAX_PARTICLES, colors.length);
+    private final float[] vertices = new float[MAX_PARTICLES * ConfettiSystem.FLOATS_PER_PARTICLE];
+    private final int[] groupStart = new int[colors.length];
+    private final int[] groupLength = new int[colors.length];
+    private final Paint paint;
+    private final Path path = new Path();
+    private boolean isAnimating = false;
+    private long lastFrameNanos;
 
     public ConfettiView(Context context) {
         super(context);
-        confettiList = new ArrayList<>();
-        paint = new Paint();
-        paint.setStyle(Paint.Style.FILL);
-        random = new Random();
+        paint = createPaint();
     }
 
     public ConfettiView(Context context, AttributeSet attrs) {
         super(context, attrs);
-        confettiList = new ArrayList<>();
-        paint = new Paint();
-        paint.setStyle(Paint.Style.FILL);
-        random = new Random();
+        paint = createPaint();
     }
 
     public ConfettiView(Context context, AttributeSet attrs, int defStyleAttr) {
         super(context, attrs, defStyleAttr);
-        confettiList = new ArrayList<>();
-        paint = new Paint();
-        paint.setStyle(Paint.Style.FILL);
-        random = new Random();
+        paint = createPaint();
     }
 
-    public void startConfetti() {
-        confettiList.clear();
-        isAnimating = true;
+    private Paint createPaint() {
+        Paint p = new Paint(Paint.ANTI_ALIAS_FLAG);
+        p.setStyle(Paint.Style.FILL);
+        return p;
+    }
 
-        for (int i = 0; i < 100; i++) {
-            Confetti c = new Confetti();
-            c.x = random.nextFloat() * getWidth();
-            c.y = -random.nextFloat() * getHeight();
-            c.speedY = 5 + random.nextFloat() * 10;
-            c.speedX = -3 + random.nextFloat() * 6;
-            c.rotation = random.nextFloat() * 360;
-            c.rotationSpeed = -5 + random.nextFloat() * 10;
-            c.color = colors[random.nextInt(colors.length)];
-            c.size = 10 + random.nextFloat() * 15;
-            confettiList.add(c);
-        }
+    public void startConfetti() {
+        startConfetti(DEFAULT_PARTICLES);
+    }
 
+    public void startConfetti(int particles) {
+        system.spawn(particles, getWidth(), getHeight(), System.nanoTime());
+        Choreographer.getInstance().removeFrameCallback(this);
+        isAnimating = true;
+        lastFrameNanos = 0;
+        Choreographer.getInstance().postFrameCallback(this);
         invalidate();
     }
 
     public void stopConfetti() {
         isAnimating = false;
-        confettiList.clear();
+        system.clear();
+        Choreographer.getInstance().removeFrameCallback(this);
         invalidate();
     }
 
     @Override
-    protected void onDraw(Canvas canvas) {
-        super.onDraw(canvas);
-
+    public void doFrame(long frameTimeNanos) {
         if (!isAnimating) return;
 
-        boolean hasVisible = false;
+        if (lastFrameNanos != 0) {
+            long elapsed = Math.min(frameTimeNanos - lastFrameNanos, MAX_FRAME_NANOS);
+            isAnimating = system.step(elapsed / 1_000_000_000f, getHeight());
+        }
+        lastFrameNanos = frameTimeNanos;
 
-        for (Confetti c : confettiList) {
-            if (c.y < getHeight()) {
-                hasVisible = true;
+        invalidate();
+        if (isAnimating) {
+            Choreographer.getInstance().postFrameCallback(this);
+        }
+    }
 
-                paint.setColor(c.color);
+    @Override
+    protected void onDetachedFromWindow() {
+        super.onDetachedFromWindow();
+        stopConfetti();
+    }
 
-                canvas.save();
-                canvas.translate(c.x, c.y);
-                canvas.rotate(c.rotation);
-                canvas.drawRect(-c.size / 2, -c.size / 4, c.size / 2, c.size / 4, paint);
-                canvas.restore();
+    @Override
+    protected void onDraw(Canvas canvas) {
+        super.onDraw(canvas);
 
-                c.y += c.speedY;
-                c.x += c.speedX;
-                c.rotation += c.rotationSpeed;
+        if (!isAnimating || system.getCount() == 0) return;
+
+        system.writeVertices(vertices, groupStart, groupLength);
+        // drawVertices is only hardware accelerated from API 29.
+        boolean useVertices = Build.VERSION.SDK_INT >= Build.VERSION_CODES.Q
+            || !canvas.isHardwareAccelerated();
+
+        for (int c = 0; c < colors.length; c++) {
+            if (groupLength[c] == 0) continue;
+            paint.setColor(colors[c]);
+            if (useVertices) {
+                canvas.drawVertices(Canvas.VertexMode.TRIANGLES, groupLength[c], vertices, groupStart[c],
+                    null, 0, null, 0, null, 0, 0, paint);
+            } else {
+                canvas.drawPath(buildPath(groupStart[c], groupLength[c]), paint);
             }
         }
+    }
 
-        if (hasVisible) {
-            postInvalidateDelayed(16);
-        } else {
-            isAnimating = false;
+    // One path per color: each particle's triangles abc, acd become the quad abcd.
+    private Path buildPath(int start, int length) {
+        path.rewind();
+        for (int o = start; o < start + length; o += ConfettiSystem.FLOATS_PER_PARTICLE) {
+            path.moveTo(vertices[o], vertices[o + 1]);
+            path.lineTo(vertices[o + 2], vertices[o + 3]);
+            path.lineTo(vertices[o + 4], vertices[o + 5]);
+            path.lineTo(vertices[o + 10], vertices[o + 11]);
+            path.close();
         }
+        return path;
     }
 }
@@ -0,0 +1,91 @@
+package com.puzzlegame.app;
+
+import android.content.Context;
+import android.os.Handler;
+import android.os.Looper;
+import android.util.Log;
+
+import com.puzzlegame.core.GameRecord;
+import com.puzzlegame.core.GridStats;
+import com.puzzlegame.core.StatsStore;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Process-wide access to the completed-games log in the files directory.
+ * Opening, appending and compacting the log all run in order on one
+ * background thread. If the log cannot be opened, games are simply not
+ * recorded.
+ */
+public class GameStats {
+    private static final String TAG = "GameStats";
+
+    public interface Callback {
+        void onStatsLoaded(List<GridStats> stats);
+    }
+
+    private static GameStats instance;
+
+    private final File file;
+    private final Handler mainHandler = new Handler(Looper.getMainLooper());
+    private final ExecutorService executor = new ThreadPoolExecutor(
+        0, 1, 10, TimeUnit.SECONDS, new LinkedBlockingQueue<>());
+    // Touched only on the worker thread.
+    private StatsStore store;
+    private boolean openFailed;
+
+    public static synchronized GameStats getInstance(Context context) {
+        if (instance == null) {
+            instance = new GameStats(new File(context.getFilesDir(), "stats.log"));
+        }
+        return instance;
+    }
+
+    private GameStats(File file) {
+        this.file = file;
+    }
+
+    /** Appends {@code record} on the background thread; it may compact the log. */
+    public void record(GameRecord record) {
+        executor.execute(() -> {
+            StatsStore opened = open();
+            if (opened == null) return;
+            try {
+                opened.record(record);
+            } catch (IOException e) {
+                Log.w(TAG, "Could not record game", e);
+            }
+        });
+    }
+
+    /**
+     * Delivers a copy of every grid's stats on the main thread, after any game
+     * still being recorded; games recorded later do not touch the copies.
+     */
+    public void getAll(Callback callback) {
+        executor.execute(() -> {
+            StatsStore opened = open();
+            List<GridStats> stats = opened != null ? opened.getAll() : Collections.emptyList();
+            mainHandler.post(() -> callback.onStatsLoaded(stats));
+        });
+    }
+
+    private StatsStore open() {
+        if (store == null && !openFailed) {
+            try {
+                store = StatsStore.open(file);
+            } catch (IOException e) {
+                openFailed = true;
+                Log.w(TAG, "Could not open " + file, e);
+            }
+        }
+        return store;
+    }
+}
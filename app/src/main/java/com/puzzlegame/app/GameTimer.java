@@ -2,15 +2,32 @@ package com.puzzlegame.app;
 
 import android.os.Handler;
 import android.os.Looper;
+import android.os.SystemClock;
 
+/**
+ * Play-time clock on {@link SystemClock#elapsedRealtimeNanos()}. Time
+ * accumulates across stop/start, so pausing the activity no longer resets
+ * it. Ticks are scheduled for the next whole second of elapsed time, and the
+ * text is written into one reused char buffer.
+ */
 public class GameTimer {
+    private static final long NANOS_PER_SECOND = 1_000_000_000L;
+    private static final long NANOS_PER_MILLI = 1_000_000L;
+
     private final Handler handler = new Handler(Looper.getMainLooper());
-    private long startTime = 0;
+    private final char[] text = new char[16];
+    private long accumulatedNanos = 0;
+    private long resumedAtNanos = 0;
+    private long lapStartNanos = 0;
     private boolean running = false;
     private TimerListener listener;
 
     public interface TimerListener {
-        void onTick(String formattedTime);
+        /**
+         * {@code text} is reused by the next tick; it can be handed to
+         * {@code TextView.setText(char[], int, int)}, which does not copy.
+         */
+        void onTick(char[] text, int length);
     }
 
     public void setListener(TimerListener listener) {
@@ -18,40 +35,95 @@ public class GameTimer {
     }
 
     public void start() {
-        startTime = System.currentTimeMillis();
+        if (running) return;
+        resumedAtNanos = SystemClock.elapsedRealtimeNanos();
         running = true;
         handler.post(timerRunnable);
     }
 
     public void stop() {
-        running = false;
+        if (running) {
+            accumulatedNanos += SystemClock.elapsedRealtimeNanos() - resumedAtNanos;
+            running = false;
+        }
         handler.removeCallbacks(timerRunnable);
     }
 
     public void reset() {
         stop();
-        startTime = 0;
-        if (listener != null) {
-            listener.onTick("00:00");
-        }
+        accumulatedNanos = 0;
+        lapStartNanos = 0;
+        dispatchTick(0);
+    }
+
+    /** Stops the clock and sets it to {@code elapsedNanos}, e.g. from a saved game. */
+    public void restore(long elapsedNanos) {
+        stop();
+        accumulatedNanos = elapsedNanos;
+        lapStartNanos = elapsedNanos;
+        dispatchTick(elapsedNanos);
+    }
+
+    public boolean isRunning() {
+        return running;
+    }
+
+    public long getElapsedNanos() {
+        if (!running) return accumulatedNanos;
+        return accumulatedNanos + SystemClock.elapsedRealtimeNanos() - resumedAtNanos;
+    }
+
+    /** Ends the current lap and returns its length, e.g. the time a move took. */
+    public long lap() {
+        long now = getElapsedNanos();
+        long lap = now - lapStartNanos;
+        lapStartNanos = now;
+        return lap;
     }
 
     public String getFormattedTime() {
-        long elapsed = System.currentTimeMillis() - startTime;
-        int seconds = (int) (elapsed / 1000) % 60;
-        int minutes = (int) (elapsed / 1000) / 60;
-        return String.format("%02d:%02d", minutes, seconds);
+        // Not the tick buffer: a TextView may still be displaying that one.
+        char[] out = new char[text.length];
+        return new String(out, 0, format(getElapsedNanos(), out));
+    }
+
+    /** Writes {@code nanos} as {@code mm:ss} into {@code out} and returns the length. */
+    static int format(long nanos, char[] out) {
+        long totalSeconds = nanos / NANOS_PER_SECOND;
+        long minutes = totalSeconds / 60;
+        int seconds = (int) (totalSeconds % 60);
+
+        int digits = 2;
+        for (long m = minutes / 100; m > 0; m /= 10) {
+            digits++;
+        }
+        for (int i = digits - 1; i >= 0; i--) {
+            out[i] = (char) ('0' + minutes % 10);
+            minutes /= 10;
+        }
+        out[digits] = ':';
+        out[digits + 1] = (char) ('0' + seconds / 10);
+        out[digits + 2] = (char) ('0' + seconds % 10);
+        return digits + 3;
+    }
+
+    private void dispatchTick(long elapsedNanos) {
+        if (listener != null) {
+            listener.onTick(text, format(elapsedNanos, text));
+        }
     }
 
     private final Runnable timerRunnable = new Runnable() {
         @Override
         public void run() {
-            if (running) {
-                if (listener != null) {
-                    listener.onTick(getFormattedTime());
-                }
-                handler.postDelayed(this, 1000);
-            }
+            if (!running) return;
+            long elapsed = getElapsedNanos();
+            dispatchTick(elapsed);
+
+            // Aim at the next second boundary, rounding up so we never land just short of it.
+            long untilNextSecond = NANOS_PER_SECOND - elapsed % NANOS_PER_SECOND;
+            long delayMillis = (untilNextSecond + NANOS_PER_MILLI - 1) / NANOS_PER_MILLI;
+            handler.postAtTime(this, SystemClock.uptimeMillis() + delayMillis);
         }
     };
 }
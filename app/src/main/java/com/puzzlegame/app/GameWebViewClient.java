@@ -0,0 +1,15 @@
+package com.puzzlegame.app;
+
+import android.webkit.WebResourceRequest;
+import android.webkit.WebResourceResponse;
+import android.webkit.WebView;
+import android.webkit.WebViewClient;
+
+/** Client for every game WebView: routes {@link WebImageServer} URLs to the app. */
+class GameWebViewClient extends WebViewClient {
+
+    @Override
+    public WebResourceResponse shouldInterceptRequest(WebView view, WebResourceRequest request) {
+        return WebImageServer.getInstance().intercept(request.getUrl());
+    }
+}
@@ -0,0 +1,190 @@
+package com.puzzlegame.app;
+
+import android.content.ContentResolver;
+import android.graphics.Bitmap;
+import android.graphics.BitmapFactory;
+import android.graphics.BitmapRegionDecoder;
+import android.graphics.Rect;
+import android.net.Uri;
+import android.os.Handler;
+import android.os.Looper;
+import android.util.Log;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * Decodes a picked image off the main thread straight into a square bitmap
+ * close to board resolution, without ever holding the full-size photo. The
+ * saved game's board image is read on the same thread.
+ */
+public class ImageLoader {
+    private static final String TAG = "ImageLoader";
+
+    public interface Callback {
+        void onProgress(int percent);
+        void onImageLoaded(Bitmap bitmap);
+        void onImageFailed();
+    }
+
+    public static final class Task {
+        private volatile boolean cancelled = false;
+        private Future<?> future;
+
+        public void cancel() {
+            cancelled = true;
+            if (future != null) {
+                future.cancel(true);
+            }
+        }
+
+        public boolean isCancelled() {
+            return cancelled;
+        }
+    }
+
+    private final ContentResolver resolver;
+    private final ExecutorService executor = Executors.newSingleThreadExecutor();
+    private final Handler mainHandler = new Handler(Looper.getMainLooper());
+    private Task current;
+
+    public ImageLoader(ContentResolver resolver) {
+        this.resolver = resolver;
+    }
+
+    private interface Decoder {
+        Bitmap decode(Task task) throws IOException;
+    }
+
+    /**
+     * Starts decoding {@code uri}, cancelling any load still in flight.
+     * Callbacks are delivered on the main thread and never for a cancelled task.
+     */
+    public Task load(Uri uri, int targetSize, Callback callback) {
+        return submit(callback, task -> {
+            long start = Metrics.begin(Metrics.IMAGE_DECODE);
+            try {
+                return decodeSquare(uri, targetSize, task, callback);
+            } finally {
+                Metrics.end(Metrics.IMAGE_DECODE, start);
+            }
+        });
+    }
+
+    /**
+     * Reads the board image {@code store} saved under {@code stamp}, like
+     * {@link #load}; a missing or stale image is reported as a failure.
+     */
+    public Task loadSaved(SaveGameStore store, long stamp, Callback callback) {
+        return submit(callback, task -> store.loadImage(stamp));
+    }
+
+    private Task submit(Callback callback, Decoder decoder) {
+        cancel();
+        Task task = new Task();
+        task.future = executor.submit(() -> {
+            try {
+                Bitmap bitmap = decoder.decode(task);
+                if (isCancelled(task)) return;
+                deliver(task, () -> {
+                    if (bitmap != null) {
+                        callback.onImageLoaded(bitmap);
+                    } else {
+                        callback.onImageFailed();
+                    }
+                });
+            } catch (Exception e) {
+                Log.w(TAG, "Could not load image", e);
+                deliver(task, callback::onImageFailed);
+            }
+        });
+        current = task;
+        return task;
+    }
+
+    public void cancel() {
+        if (current != null) {
+            current.cancel();
+            current = null;
+        }
+    }
+
+    public void shutdown() {
+        cancel();
+        executor.shutdownNow();
+    }
+
+    private Bitmap decodeSquare(Uri uri, int targetSize, Task task, Callback callback) throws IOException {
+        BitmapFactory.Options bounds = new BitmapFactory.Options();
+        bounds.inJustDecodeBounds = true;
+        try (InputStream in = resolver.openInputStream(uri)) {
+            BitmapFactory.decodeStream(in, null, bounds);
+        }
+        if (bounds.outWidth <= 0 || bounds.outHeight <= 0) return null;
+        if (isCancelled(task)) return null;
+        deliver(task, () -> callback.onProgress(25));
+
+        int size = Math.min(bounds.outWidth, bounds.outHeight);
+        int left = (bounds.outWidth - size) / 2;
+        int top = (bounds.outHeight - size) / 2;
+        Rect region = new Rect(left, top, left + size, top + size);
+
+        BitmapFactory.Options options = new BitmapFactory.Options();
+        options.inSampleSize = calculateSampleSize(size, targetSize);
+        options.inPreferredConfig = Bitmap.Config.ARGB_8888;
+
+        Bitmap bitmap;
+        try (InputStream in = resolver.openInputStream(uri)) {
+            BitmapRegionDecoder decoder = BitmapRegionDecoder.newInstance(in, false);
+            try {
+                bitmap = decoder.decodeRegion(region, options);
+            } finally {
+                decoder.recycle();
+            }
+        } catch (IOException e) {
+            // Formats without region support fall back to a sampled full decode.
+            bitmap = decodeSampled(uri, options);
+            if (bitmap != null) bitmap = Utils.cropToSquare(bitmap);
+        }
+        if (bitmap == null || isCancelled(task)) return null;
+        deliver(task, () -> callback.onProgress(75));
+
+        if (bitmap.getWidth() > targetSize * 2) {
+            Bitmap scaled = Utils.scaleBitmap(bitmap, targetSize);
+            bitmap.recycle();
+            bitmap = scaled;
+        }
+        deliver(task, () -> callback.onProgress(100));
+        return bitmap;
+    }
+
+    private Bitmap decodeSampled(Uri uri, BitmapFactory.Options options) throws IOException {
+        try (InputStream in = resolver.openInputStream(uri)) {
+            return BitmapFactory.decodeStream(in, null, options);
+        }
+    }
+
+    static int calculateSampleSize(int sourceSize, int targetSize) {
+        int sampleSize = 1;
+        if (targetSize <= 0) return sampleSize;
+        while (sourceSize / (sampleSize * 2) >= targetSize) {
+            sampleSize *= 2;
+        }
+        return sampleSize;
+    }
+
+    private boolean isCancelled(Task task) {
+        return task == null || task.isCancelled() || Thread.currentThread().isInterrupted();
+    }
+
+    private void deliver(Task task, Runnable action) {
+        mainHandler.post(() -> {
+            if (task != null && !task.isCancelled()) {
+                action.run();
+            }
+        });
+    }
+}
@@ -0,0 +1,123 @@
+package com.puzzlegame.app;
+
+import android.graphics.Bitmap;
+import android.graphics.BitmapShader;
+import android.graphics.Canvas;
+import android.graphics.Paint;
+import android.graphics.Path;
+import android.graphics.Shader;
+
+import com.puzzlegame.core.JigsawEdges;
+import com.puzzlegame.core.TileGeometry;
+
+/**
+ * Jigsaw cut of one prepared board. Each distinct edge combination gets one
+ * {@link Path} and one ALPHA_8 mask, built the first time a piece needs it,
+ * so a grid of any size builds at most {@link JigsawEdges#SHAPE_COUNT}.
+ * A piece is drawn by stamping its mask with a paint whose shader is the
+ * board atlas; the canvas is shifted so the piece's own part of the picture,
+ * tabs included, falls inside the mask. No per-piece bitmap is ever made.
+ */
+final class JigsawShapes {
+
+    // Four cubics (along, out) in piece units, from (0.35, 0) round the tab to (0.65, 0).
+    private static final float[] TAB_CURVE = {
+        0.40f, 0.00f, 0.42f, 0.05f, 0.38f, 0.12f,
+        0.33f, 0.22f, 0.42f, 0.27f, 0.50f, 0.27f,
+        0.58f, 0.27f, 0.67f, 0.22f, 0.62f, 0.12f,
+        0.58f, 0.05f, 0.60f, 0.00f, 0.65f, 0.00f,
+    };
+    private static final float TAB_START = 0.35f;
+    private static final float TAB_HEIGHT = 0.27f;
+
+    private final JigsawEdges edges;
+    private final TileGeometry geometry;
+    private final int pieceSize;
+    private final int margin;
+    private final Path[] paths = new Path[JigsawEdges.SHAPE_COUNT];
+    private final Bitmap[] masks = new Bitmap[JigsawEdges.SHAPE_COUNT];
+    private final Paint piecePaint;
+
+    JigsawShapes(JigsawEdges edges, Bitmap atlas, TileGeometry geometry) {
+        this.edges = edges;
+        this.geometry = geometry;
+        this.pieceSize = geometry.getPieceSize();
+        this.margin = (int) Math.ceil(pieceSize * TAB_HEIGHT) + 1;
+        piecePaint = new Paint(Paint.FILTER_BITMAP_FLAG);
+        piecePaint.setShader(new BitmapShader(atlas, Shader.TileMode.CLAMP, Shader.TileMode.CLAMP));
+    }
+
+    /** How far a tab reaches past the piece's square, in pixels. */
+    int getMargin() {
+        return margin;
+    }
+
+    /** Draws {@code tile} with its square's top-left at ({@code left}, {@code top}). */
+    void drawPiece(Canvas canvas, int tile, float left, float top) {
+        int srcLeft = geometry.cellLeft(tile);
+        int srcTop = geometry.cellTop(tile);
+        int saveCount = canvas.save();
+        // The shader samples the atlas in canvas coordinates: line the tile's atlas position up with the target.
+        canvas.translate(left - srcLeft, top - srcTop);
+        canvas.drawBitmap(mask(edges.shapeOf(tile)), srcLeft - margin, srcTop - margin, piecePaint);
+        canvas.restoreToCount(saveCount);
+    }
+
+    void drawOutline(Canvas canvas, int tile, float left, float top, Paint paint) {
+        int saveCount = canvas.save();
+        canvas.translate(left, top);
+        canvas.drawPath(path(edges.shapeOf(tile)), paint);
+        canvas.restoreToCount(saveCount);
+    }
+
+    private Bitmap mask(int shape) {
+        Bitmap mask = masks[shape];
+        if (mask == null) {
+            int size = pieceSize + 2 * margin;
+            mask = Bitmap.createBitmap(size, size, Bitmap.Config.ALPHA_8);
+            Canvas canvas = new Canvas(mask);
+            canvas.translate(margin, margin);
+            canvas.drawPath(path(shape), new Paint(Paint.ANTI_ALIAS_FLAG));
+            masks[shape] = mask;
+        }
+        return mask;
+    }
+
+    /** The outline of {@code shape} with the piece's square at (0, 0), clockwise. */
+    private Path path(int shape) {
+        Path path = paths[shape];
+        if (path == null) {
+            float size = pieceSize;
+            path = new Path();
+            path.moveTo(0, 0);
+            addEdge(path, JigsawEdges.edgeOf(shape, JigsawEdges.TOP), 0, 0, 1, 0);
+            addEdge(path, JigsawEdges.edgeOf(shape, JigsawEdges.RIGHT), size, 0, 0, 1);
+            addEdge(path, JigsawEdges.edgeOf(shape, JigsawEdges.BOTTOM), size, size, -1, 0);
+            addEdge(path, JigsawEdges.edgeOf(shape, JigsawEdges.LEFT), 0, size, 0, -1);
+            path.close();
+            paths[shape] = path;
+        }
+        return path;
+    }
+
+    private void addEdge(Path path, int edge, float startX, float startY, float dirX, float dirY) {
+        float size = pieceSize;
+        if (edge != JigsawEdges.FLAT) {
+            // Outward on a clockwise outline is the direction turned left; blanks point in.
+            float sign = edge == JigsawEdges.TAB ? size : -size;
+            float outX = dirY * sign;
+            float outY = -dirX * sign;
+            path.lineTo(startX + dirX * size * TAB_START, startY + dirY * size * TAB_START);
+            for (int i = 0; i < TAB_CURVE.length; i += 6) {
+                path.cubicTo(
+                    startX + dirX * size * TAB_CURVE[i] + outX * TAB_CURVE[i + 1],
+                    startY + dirY * size * TAB_CURVE[i] + outY * TAB_CURVE[i + 1],
+                    startX + dirX * size * TAB_CURVE[i + 2] + outX * TAB_CURVE[i + 3],
+                    startY + dirY * size * TAB_CURVE[i + 2] + outY * TAB_CURVE[i + 3],
+                    startX + dirX * size * TAB_CURVE[i + 4] + outX * TAB_CURVE[i + 5],
+                    startY + dirY * size * TAB_CURVE[i + 4] + outY * TAB_CURVE[i + 5]);
+            }
+        }
+        path.lineTo(startX + dirX * size, startY + dirY * size);
+    }
+}
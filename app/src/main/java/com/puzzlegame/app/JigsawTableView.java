@@ -0,0 +1,259 @@
+package com.puzzlegame.app;
+
+import android.content.Context;
+import android.graphics.Bitmap;
+import android.graphics.Canvas;
+import android.graphics.Color;
+import android.graphics.Paint;
+import android.graphics.Rect;
+import android.util.AttributeSet;
+import android.view.MotionEvent;
+import android.view.View;
+
+import com.puzzlegame.core.JigsawEdges;
+import com.puzzlegame.core.JigsawTable;
+
+import java.util.SplittableRandom;
+
+/**
+ * Free-form jigsaw: the pieces are scattered over the whole view, dragged
+ * anywhere, and join when dropped next to a matching neighbour. Joined
+ * pieces move as one. The game state lives in {@link JigsawTable}; this
+ * view only draws it and turns touches into lifts, moves and snaps.
+ */
+public class JigsawTableView extends View {
+
+    private static final int MIN_DECORATED_PIECE_SIZE = 24;
+
+    public interface TableListener {
+        void onTableReady();
+        void onPieceDropped(int joins, int groupCount);
+        void onTableComplete();
+    }
+
+    private final BoardBuilder boardBuilder = new BoardBuilder();
+    private final BoardCache boardCache = BoardCache.getInstance();
+    private final SplittableRandom seedSource = new SplittableRandom();
+    private final Rect clipBounds = new Rect();
+    private final Paint outlinePaint;
+    private TableListener listener;
+
+    private Bitmap originalImage;
+    private int imageId;
+    private int requestedGridSize = 2;
+    private JigsawTable table;
+    private JigsawShapes shapes;
+    // Set by a new image or grid size; a resize alone keeps the pieces where the player left them.
+    private boolean dealPending;
+
+    private int dragPiece = JigsawTable.NONE;
+    private float lastX, lastY;
+
+    public JigsawTableView(Context context) {
+        super(context);
+        outlinePaint = createOutlinePaint();
+    }
+
+    public JigsawTableView(Context context, AttributeSet attrs) {
+        super(context, attrs);
+        outlinePaint = createOutlinePaint();
+    }
+
+    public JigsawTableView(Context context, AttributeSet attrs, int defStyleAttr) {
+        super(context, attrs, defStyleAttr);
+        outlinePaint = createOutlinePaint();
+    }
+
+    public void setListener(TableListener listener) {
+        this.listener = listener;
+    }
+
+    public void setGridSize(int size) {
+        this.requestedGridSize = clampGridSize(size);
+        dealPending = true;
+        if (originalImage != null) {
+            createTable();
+        }
+    }
+
+    /**
+     * Deals a new table of {@code image} cut into {@code gridSize} x {@code gridSize}.
+     * {@code image} must already be square, like {@link PuzzleView#getOriginalImage()}.
+     */
+    public void setImage(Bitmap image, int gridSize) {
+        this.requestedGridSize = clampGridSize(gridSize);
+        if (image != originalImage) {
+            this.originalImage = image;
+            this.imageId = boardCache.newImageId();
+        }
+        dealPending = true;
+        createTable();
+    }
+
+    public JigsawTable getTable() {
+        return table;
+    }
+
+    /** Breaks every join and scatters the pieces again. */
+    public void scatter() {
+        if (table == null) return;
+        dragPiece = JigsawTable.NONE;
+        table.scatter(seedSource.nextLong());
+        invalidate();
+    }
+
+    private static int clampGridSize(int size) {
+        return Math.max(2, Math.min(size, PuzzleView.MAX_GRID_SIZE));
+    }
+
+    private void createTable() {
+        if (originalImage == null) return;
+
+        // Not laid out yet (the view starts hidden): onSizeChanged deals the table.
+        int viewSize = Math.min(getWidth(), getHeight());
+        if (viewSize == 0) return;
+
+        // The finished picture takes most of the short side, leaving room round it to sort pieces.
+        int availableSize = viewSize * 3 / 4;
+        PreparedBoard cached = boardCache.get(imageId, requestedGridSize, availableSize);
+        if (cached != null) {
+            boardBuilder.cancel();
+            applyBoard(cached);
+            return;
+        }
+
+        int requestImageId = imageId;
+        boardBuilder.request(originalImage, requestedGridSize, availableSize, prepared -> {
+            boardCache.put(requestImageId, availableSize, prepared);
+            applyBoard(prepared);
+        });
+    }
+
+    private void applyBoard(PreparedBoard prepared) {
+        int gridSize = prepared.getGridSize();
+        shapes = new JigsawShapes(new JigsawEdges(gridSize, gridSize), prepared.getImage(), prepared.getGeometry());
+        dragPiece = JigsawTable.NONE;
+        if (!dealPending && table != null && table.getGridSize() == gridSize) {
+            // Same game on a resized view: scale the pieces and keep every join.
+            table = table.resized(prepared.getPieceSize(), getWidth(), getHeight());
+            invalidate();
+            return;
+        }
+
+        dealPending = false;
+        table = new JigsawTable(gridSize, prepared.getPieceSize(), getWidth(), getHeight());
+        table.scatter(seedSource.nextLong());
+        invalidate();
+        if (listener != null) {
+            listener.onTableReady();
+        }
+    }
+
+    @Override
+    protected void onDraw(Canvas canvas) {
+        super.onDraw(canvas);
+
+        if (table == null) return;
+        long start = Metrics.begin(Metrics.TABLE_DRAW);
+
+        canvas.getClipBounds(clipBounds);
+        float pieceSize = table.getPieceSize();
+        float reach = shapes.getMargin();
+        boolean decorated = pieceSize >= MIN_DECORATED_PIECE_SIZE;
+        int count = table.getPieceCount();
+        for (int depth = 0; depth < count; depth++) {
+            int piece = table.pieceAtDepth(depth);
+            float x = table.getX(piece);
+            float y = table.getY(piece);
+            if (x - reach >= clipBounds.right || y - reach >= clipBounds.bottom
+                    || x + pieceSize + reach <= clipBounds.left || y + pieceSize + reach <= clipBounds.top) {
+                continue;
+            }
+            shapes.drawPiece(canvas, piece, x, y);
+            if (decorated) {
+                shapes.drawOutline(canvas, piece, x, y, outlinePaint);
+            }
+        }
+
+        Metrics.end(Metrics.TABLE_DRAW, start);
+    }
+
+    @Override
+    public boolean onTouchEvent(MotionEvent event) {
+        if (table == null) return false;
+
+        switch (event.getActionMasked()) {
+            case MotionEvent.ACTION_DOWN:
+                dragPiece = table.pieceAt(event.getX(), event.getY());
+                if (dragPiece == JigsawTable.NONE) return false;
+                table.lift(dragPiece);
+                lastX = event.getX();
+                lastY = event.getY();
+                invalidate();
+                return true;
+
+            case MotionEvent.ACTION_MOVE:
+                if (dragPiece == JigsawTable.NONE) return false;
+                moveDragged(event.getX(), event.getY());
+                return true;
+
+            case MotionEvent.ACTION_UP:
+                if (dragPiece == JigsawTable.NONE) return false;
+                moveDragged(event.getX(), event.getY());
+                drop();
+                return true;
+
+            case MotionEvent.ACTION_CANCEL:
+                dragPiece = JigsawTable.NONE;
+                return true;
+        }
+        return false;
+    }
+
+    // Follows the finger, but keeps the held piece at least half on the table.
+    private void moveDragged(float touchX, float touchY) {
+        float half = table.getPieceSize() / 2;
+        float x = table.getX(dragPiece);
+        float y = table.getY(dragPiece);
+        float targetX = Math.max(-half, Math.min(x + touchX - lastX, getWidth() - half));
+        float targetY = Math.max(-half, Math.min(y + touchY - lastY, getHeight() - half));
+        lastX = touchX;
+        lastY = touchY;
+        if (targetX == x && targetY == y) return;
+        table.moveGroup(dragPiece, targetX - x, targetY - y);
+        invalidate();
+    }
+
+    private void drop() {
+        int joins = table.snap(dragPiece);
+        dragPiece = JigsawTable.NONE;
+        invalidate();
+        if (listener == null) return;
+        listener.onPieceDropped(joins, table.getGroupCount());
+        if (joins > 0 && table.isComplete()) {
+            listener.onTableComplete();
+        }
+    }
+
+    @Override
+    protected void onSizeChanged(int w, int h, int oldw, int oldh) {
+        super.onSizeChanged(w, h, oldw, oldh);
+        if (originalImage != null) {
+            createTable();
+        }
+    }
+
+    @Override
+    protected void onDetachedFromWindow() {
+        super.onDetachedFromWindow();
+        boardBuilder.cancel();
+    }
+
+    private Paint createOutlinePaint() {
+        Paint paint = new Paint(Paint.ANTI_ALIAS_FLAG);
+        paint.setStyle(Paint.Style.STROKE);
+        paint.setStrokeWidth(1.5f);
+        paint.setColor(Color.argb(150, 255, 255, 255));
+        return paint;
+    }
+}
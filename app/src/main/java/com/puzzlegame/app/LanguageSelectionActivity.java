@@ -17,7 +17,7 @@ public class LanguageSelectionActivity extends AppCompatActivity {
         super.onCreate(savedInstanceState);
 
         preferenceManager = new PreferenceManager(this);
-        soundManager = new SoundManager();
+        soundManager = new SoundManager(this);
 
         if (!preferenceManager.isFirstLaunch()) {
             Utils.setLocale(this, preferenceManager.getLanguage());
@@ -5,12 +5,13 @@ import android.app.AlertDialog;
 import android.content.Intent;
 import android.content.pm.PackageManager;
 import android.graphics.Bitmap;
-import android.graphics.BitmapFactory;
 import android.net.Uri;
 import android.os.Build;
 import android.os.Bundle;
 import android.provider.MediaStore;
+import android.view.Gravity;
 import android.view.View;
+import android.view.ViewGroup;
 import android.widget.Button;
 import android.widget.FrameLayout;
 import android.widget.ImageView;
@@ -23,24 +24,46 @@ import androidx.activity.result.contract.ActivityResultContracts;
 import androidx.appcompat.app.AppCompatActivity;
 import androidx.core.content.ContextCompat;
 
-import java.io.InputStream;
+import com.puzzlegame.core.Board;
+import com.puzzlegame.core.GameRecord;
+import com.puzzlegame.core.GameSnapshot;
+import com.puzzlegame.core.GridStats;
+import com.puzzlegame.core.JigsawTable;
 
-public class MainActivity extends AppCompatActivity implements PuzzleView.PuzzleListener, GameTimer.TimerListener {
+import java.io.File;
+import java.io.IOException;
+import java.util.List;
+
+public class MainActivity extends AppCompatActivity
+        implements PuzzleView.PuzzleListener, JigsawTableView.TableListener, GameTimer.TimerListener {
 
     private PreferenceManager preferenceManager;
     private SoundManager soundManager;
     private GameTimer gameTimer;
+    private ImageLoader imageLoader;
+    private SaveGameStore saveGameStore;
+    private GameStats gameStats;
 
     private PuzzleView puzzleView;
+    private JigsawTableView tableView;
     private ImageView imgPreview;
-    private TextView txtTimer, txtMoves, txtCorrect, txtProgress;
+    private TextView txtTimer, txtMoves, txtCorrect, txtMovesLeft, txtProgress;
     private ProgressBar progressBar;
-    private Button btnSound, btnEasy, btnMedium, btnHard;
+    private static final int[] EXPERT_GRID_SIZES = {8, 16, 32, PuzzleView.MAX_GRID_SIZE};
+
+    private Button btnSound, btnEasy, btnMedium, btnHard, btnExpert, btnMode, btnSolve;
     private FrameLayout puzzleContainer;
+    private PerfOverlayView perfOverlay;
 
     private int moves = 0;
     private int gridSize = 2;
     private boolean gameStarted = false;
+    // The free-form table replaces the board while on; it is not saved between sessions.
+    private boolean tableMode = false;
+    // Identifies the current image in the save-game store.
+    private long imageStamp;
+    private long imageHash;
+    private GameSnapshot pendingRestore;
 
     private final ActivityResultLauncher<Intent> imagePickerLauncher = registerForActivityResult(
         new ActivityResultContracts.StartActivityForResult(),
@@ -68,10 +91,13 @@ public class MainActivity extends AppCompatActivity implements PuzzleView.Puzzle
         super.onCreate(savedInstanceState);
 
         preferenceManager = new PreferenceManager(this);
-        soundManager = new SoundManager();
+        soundManager = new SoundManager(this);
         soundManager.setEnabled(preferenceManager.isSoundEnabled());
         gameTimer = new GameTimer();
         gameTimer.setListener(this);
+        imageLoader = new ImageLoader(getContentResolver());
+        saveGameStore = new SaveGameStore(this);
+        gameStats = GameStats.getInstance(this);
 
         Utils.setLocale(this, preferenceManager.getLanguage());
 
@@ -81,6 +107,9 @@ public class MainActivity extends AppCompatActivity implements PuzzleView.Puzzle
         setupListeners();
         updateSoundButton();
         updateDifficultyButtons();
+        puzzleView.setJigsawMode(preferenceManager.isJigsawEnabled());
+        updateModeButtons();
+        restoreGame();
     }
 
     private void initViews() {
@@ -89,17 +118,26 @@ public class MainActivity extends AppCompatActivity implements PuzzleView.Puzzle
         txtTimer = findViewById(R.id.txtTimer);
         txtMoves = findViewById(R.id.txtMoves);
         txtCorrect = findViewById(R.id.txtCorrect);
+        txtMovesLeft = findViewById(R.id.txtMovesLeft);
         txtProgress = findViewById(R.id.txtProgress);
         progressBar = findViewById(R.id.progressBar);
         btnSound = findViewById(R.id.btnSound);
         btnEasy = findViewById(R.id.btnEasy);
         btnMedium = findViewById(R.id.btnMedium);
         btnHard = findViewById(R.id.btnHard);
+        btnExpert = findViewById(R.id.btnExpert);
+        btnMode = findViewById(R.id.btnMode);
+        btnSolve = findViewById(R.id.btnSolve);
 
         puzzleView = new PuzzleView(this);
         puzzleView.setListener(this);
         puzzleView.setGridSize(gridSize);
         puzzleContainer.addView(puzzleView);
+
+        tableView = new JigsawTableView(this);
+        tableView.setListener(this);
+        tableView.setVisibility(View.GONE);
+        puzzleContainer.addView(tableView);
     }
 
     private void setupListeners() {
@@ -126,6 +164,17 @@ public class MainActivity extends AppCompatActivity implements PuzzleView.Puzzle
             if (newState) soundManager.playTap();
         });
 
+        findViewById(R.id.btnStats).setOnClickListener(v -> {
+            soundManager.playTap();
+            showStatsDialog();
+        });
+
+        // Hidden debug switch for the performance overlay.
+        findViewById(R.id.titleText).setOnLongClickListener(v -> {
+            togglePerfOverlay();
+            return true;
+        });
+
         findViewById(R.id.btnLanguage).setOnClickListener(v -> {
             soundManager.playTap();
             showLanguageDialog();
@@ -134,6 +183,24 @@ public class MainActivity extends AppCompatActivity implements PuzzleView.Puzzle
         btnEasy.setOnClickListener(v -> setDifficulty(2));
         btnMedium.setOnClickListener(v -> setDifficulty(3));
         btnHard.setOnClickListener(v -> setDifficulty(4));
+        btnExpert.setOnClickListener(v -> {
+            soundManager.playTap();
+            showExpertSizeDialog();
+        });
+
+        btnMode.setOnClickListener(v -> {
+            soundManager.playTap();
+            toggleMode();
+        });
+
+        btnSolve.setOnClickListener(v -> {
+            soundManager.playTap();
+            if (puzzleView.getOriginalImage() == null) {
+                Toast.makeText(this, R.string.upload_first, Toast.LENGTH_SHORT).show();
+            } else if (!puzzleView.autoSolve()) {
+                Toast.makeText(this, R.string.solver_unavailable, Toast.LENGTH_SHORT).show();
+            }
+        });
     }
 
     private void checkPermissionAndPick() {
@@ -160,17 +227,33 @@ public class MainActivity extends AppCompatActivity implements PuzzleView.Puzzle
     }
 
     private void loadImage(Uri uri) {
-        try {
-            InputStream inputStream = getContentResolver().openInputStream(uri);
-            Bitmap bitmap = BitmapFactory.decodeStream(inputStream);
-            if (bitmap != null) {
+        pendingRestore = null;
+        int targetSize = Math.min(getResources().getDisplayMetrics().widthPixels,
+            getResources().getDisplayMetrics().heightPixels);
+
+        imageLoader.load(uri, targetSize, new ImageLoader.Callback() {
+            @Override
+            public void onProgress(int percent) {
+                progressBar.setProgress(percent);
+            }
+
+            @Override
+            public void onImageLoaded(Bitmap bitmap) {
                 imgPreview.setImageBitmap(bitmap);
-                puzzleView.setImage(bitmap);
-                startNewGame();
+                puzzleView.setImage(bitmap, uri);
+                if (tableMode) {
+                    tableView.setImage(puzzleView.getOriginalImage(), gridSize);
+                }
+                imageStamp = System.currentTimeMillis();
+                imageHash = Utils.imageHash(puzzleView.getOriginalImage());
+                saveGameStore.saveImage(puzzleView.getOriginalImage(), imageStamp);
             }
-        } catch (Exception e) {
-            Toast.makeText(this, R.string.upload_first, Toast.LENGTH_SHORT).show();
-        }
+
+            @Override
+            public void onImageFailed() {
+                Toast.makeText(MainActivity.this, R.string.upload_first, Toast.LENGTH_SHORT).show();
+            }
+        });
     }
 
     private void startNewGame() {
@@ -181,7 +264,55 @@ public class MainActivity extends AppCompatActivity implements PuzzleView.Puzzle
         gameStarted = true;
         updateProgress();
 
-        Toast.makeText(this, R.string.tap_to_swap, Toast.LENGTH_SHORT).show();
+        Toast.makeText(this, tableMode ? R.string.drag_to_join : R.string.tap_to_swap, Toast.LENGTH_SHORT).show();
+    }
+
+    private void restoreGame() {
+        GameSnapshot snapshot = saveGameStore.loadSnapshot();
+        if (snapshot == null) return;
+
+        // Anything that starts another game meanwhile clears pendingRestore.
+        pendingRestore = snapshot;
+        imageLoader.loadSaved(saveGameStore, snapshot.getImageStamp(), new ImageLoader.Callback() {
+            @Override
+            public void onProgress(int percent) {
+            }
+
+            @Override
+            public void onImageLoaded(Bitmap image) {
+                if (pendingRestore != snapshot) return;
+                imageStamp = snapshot.getImageStamp();
+                imageHash = Utils.imageHash(image);
+                gridSize = snapshot.getGridSize();
+                imgPreview.setImageBitmap(image);
+                puzzleView.restore(image, snapshot);
+                updateDifficultyButtons();
+                updateModeButtons();
+            }
+
+            @Override
+            public void onImageFailed() {
+                if (pendingRestore != snapshot) return;
+                pendingRestore = null;
+                saveGameStore.clear();
+            }
+        });
+    }
+
+    private void resumeGame(GameSnapshot snapshot) {
+        moves = snapshot.getMoves();
+        txtMoves.setText(String.valueOf(moves));
+        gameTimer.restore(snapshot.getElapsedNanos());
+        gameTimer.start();
+        gameStarted = true;
+        updateProgress();
+    }
+
+    private void saveGame() {
+        Board board = puzzleView.getBoard();
+        if (!gameStarted || tableMode || board == null || board.isSolved()) return;
+        saveGameStore.save(new GameSnapshot(board.getGridSize(), puzzleView.isSlidingMode(),
+            board.copyPermutation(), moves, gameTimer.getElapsedNanos(), puzzleView.getSeed(), imageStamp));
     }
 
     private void shufflePuzzle() {
@@ -189,7 +320,11 @@ public class MainActivity extends AppCompatActivity implements PuzzleView.Puzzle
             Toast.makeText(this, R.string.upload_first, Toast.LENGTH_SHORT).show();
             return;
         }
-        puzzleView.shuffle();
+        if (tableMode) {
+            tableView.scatter();
+        } else {
+            puzzleView.shuffle();
+        }
         startNewGame();
     }
 
@@ -204,21 +339,87 @@ public class MainActivity extends AppCompatActivity implements PuzzleView.Puzzle
     private void setDifficulty(int size) {
         soundManager.playTap();
         gridSize = size;
+        pendingRestore = null;
         puzzleView.setGridSize(size);
+        if (tableMode) {
+            tableView.setGridSize(size);
+        }
         updateDifficultyButtons();
+    }
+
+    private void showExpertSizeDialog() {
+        String[] sizes = new String[EXPERT_GRID_SIZES.length];
+        for (int i = 0; i < sizes.length; i++) {
+            sizes[i] = String.format(getString(R.string.grid_size_format), EXPERT_GRID_SIZES[i]);
+        }
+
+        new AlertDialog.Builder(this)
+            .setTitle(R.string.select_expert_size)
+            .setItems(sizes, (dialog, which) -> setDifficulty(EXPERT_GRID_SIZES[which]))
+            .show();
+    }
+
+    // Swap -> Jigsaw -> Table -> Slide -> Swap. Jigsaw only changes how swap pieces look, so it keeps the game.
+    private void toggleMode() {
+        if (puzzleView.isSlidingMode()) {
+            switchSlidingMode(false);
+        } else if (tableMode) {
+            setTableMode(false);
+            setJigsawMode(false);
+            switchSlidingMode(true);
+        } else if (puzzleView.isJigsawMode()) {
+            setTableMode(true);
+        } else {
+            setJigsawMode(true);
+        }
+        updateModeButtons();
+    }
+
+    private void setTableMode(boolean enabled) {
+        tableMode = enabled;
+        puzzleView.setVisibility(enabled ? View.GONE : View.VISIBLE);
+        tableView.setVisibility(enabled ? View.VISIBLE : View.GONE);
+        if (enabled && puzzleView.getOriginalImage() != null) {
+            // The swap game on the board is dropped, as on any mode change.
+            pendingRestore = null;
+            gameStarted = false;
+            tableView.setImage(puzzleView.getOriginalImage(), gridSize);
+        }
+    }
+
+    private void setJigsawMode(boolean enabled) {
+        puzzleView.setJigsawMode(enabled);
+        preferenceManager.setJigsawEnabled(enabled);
+    }
 
+    private void switchSlidingMode(boolean sliding) {
+        pendingRestore = null;
+        puzzleView.setSlidingMode(sliding);
         if (puzzleView.getOriginalImage() != null) {
             startNewGame();
         }
     }
 
+    private void updateModeButtons() {
+        boolean sliding = puzzleView.isSlidingMode();
+        btnMode.setText(sliding ? R.string.mode_slide
+            : tableMode ? R.string.mode_table
+            : puzzleView.isJigsawMode() ? R.string.mode_jigsaw : R.string.mode_swap);
+        btnSolve.setVisibility(sliding ? View.VISIBLE : View.GONE);
+        findViewById(R.id.btnHint).setVisibility(tableMode ? View.GONE : View.VISIBLE);
+    }
+
     private void updateDifficultyButtons() {
+        boolean expert = gridSize > 4;
+
         btnEasy.setBackground(ContextCompat.getDrawable(this,
             gridSize == 2 ? R.drawable.btn_difficulty_selected : R.drawable.btn_difficulty));
         btnMedium.setBackground(ContextCompat.getDrawable(this,
             gridSize == 3 ? R.drawable.btn_difficulty_selected : R.drawable.btn_difficulty));
         btnHard.setBackground(ContextCompat.getDrawable(this,
             gridSize == 4 ? R.drawable.btn_difficulty_selected : R.drawable.btn_difficulty));
+        btnExpert.setBackground(ContextCompat.getDrawable(this,
+            expert ? R.drawable.btn_difficulty_selected : R.drawable.btn_difficulty));
 
         btnEasy.setTextColor(ContextCompat.getColor(this,
             gridSize == 2 ? R.color.primary_dark : R.color.white));
@@ -226,6 +427,10 @@ public class MainActivity extends AppCompatActivity implements PuzzleView.Puzzle
             gridSize == 3 ? R.color.primary_dark : R.color.white));
         btnHard.setTextColor(ContextCompat.getColor(this,
             gridSize == 4 ? R.color.primary_dark : R.color.white));
+        btnExpert.setTextColor(ContextCompat.getColor(this,
+            expert ? R.color.primary_dark : R.color.white));
+        btnExpert.setText(expert ?
+            String.format(getString(R.string.expert_format), gridSize) : getString(R.string.expert));
     }
 
     private void updateSoundButton() {
@@ -234,6 +439,10 @@ public class MainActivity extends AppCompatActivity implements PuzzleView.Puzzle
     }
 
     private void updateProgress() {
+        if (tableMode) {
+            updateTableProgress();
+            return;
+        }
         int total = gridSize * gridSize;
         int correct = puzzleView.getCorrectCount();
         int percent = (correct * 100) / total;
@@ -241,6 +450,77 @@ public class MainActivity extends AppCompatActivity implements PuzzleView.Puzzle
         progressBar.setProgress(percent);
         txtProgress.setText(String.format(getString(R.string.percent_format), percent));
         txtCorrect.setText(String.valueOf(correct));
+        int movesLeft = puzzleView.getMovesLeft();
+        txtMovesLeft.setText(movesLeft >= 0 ? String.valueOf(movesLeft) : getString(R.string.unknown_value));
+    }
+
+    // Progress on the table is joins made out of the pieceCount - 1 needed.
+    private void updateTableProgress() {
+        JigsawTable table = tableView.getTable();
+        int pieces = table != null ? table.getPieceCount() : gridSize * gridSize;
+        int groups = table != null ? table.getGroupCount() : pieces;
+        int joined = pieces - groups;
+        int percent = pieces > 1 ? joined * 100 / (pieces - 1) : 0;
+
+        progressBar.setProgress(percent);
+        txtProgress.setText(String.format(getString(R.string.percent_format), percent));
+        txtCorrect.setText(String.valueOf(joined));
+        txtMovesLeft.setText(String.valueOf(groups - 1));
+    }
+
+    private void showStatsDialog() {
+        gameStats.getAll(this::showStatsDialog);
+    }
+
+    private void showStatsDialog(List<GridStats> all) {
+        if (isFinishing()) return;
+        StringBuilder text = new StringBuilder();
+        char[] time = new char[16];
+        for (GridStats stats : all) {
+            if (text.length() > 0) text.append("\n\n");
+            text.append(String.format(getString(R.string.stats_entry_format),
+                String.format(getString(R.string.grid_size_format), stats.getGridSize()),
+                getString(stats.isSliding() ? R.string.stats_mode_slide : R.string.stats_mode_swap),
+                stats.getGames(),
+                new String(time, 0, GameTimer.format(stats.getBestNanos(), time)),
+                stats.getBestMoves(),
+                stats.getMovesPercentile(50),
+                stats.getMovesPercentile(90)));
+        }
+
+        new AlertDialog.Builder(this)
+            .setTitle(R.string.statistics)
+            .setMessage(text.length() > 0 ? text : getString(R.string.stats_empty))
+            .setPositiveButton(R.string.close, null)
+            .show();
+    }
+
+    private void togglePerfOverlay() {
+        if (perfOverlay != null) {
+            ((ViewGroup) perfOverlay.getParent()).removeView(perfOverlay);
+            perfOverlay = null;
+            Metrics.setEnabled(false);
+            return;
+        }
+
+        Metrics.reset();
+        Metrics.setEnabled(true);
+        perfOverlay = new PerfOverlayView(this);
+        perfOverlay.setOnClickListener(v -> dumpMetrics());
+        addContentView(perfOverlay, new FrameLayout.LayoutParams(
+            FrameLayout.LayoutParams.WRAP_CONTENT, FrameLayout.LayoutParams.WRAP_CONTENT,
+            Gravity.BOTTOM | Gravity.START));
+    }
+
+    private void dumpMetrics() {
+        File dir = getExternalFilesDir(null);
+        try {
+            File file = Metrics.dumpJson(dir != null ? dir : getFilesDir());
+            Toast.makeText(this, String.format(getString(R.string.metrics_saved), file.getPath()),
+                Toast.LENGTH_LONG).show();
+        } catch (IOException e) {
+            Toast.makeText(this, R.string.metrics_failed, Toast.LENGTH_SHORT).show();
+        }
     }
 
     private void showLanguageDialog() {
@@ -290,6 +570,7 @@ public class MainActivity extends AppCompatActivity implements PuzzleView.Puzzle
         if (gameStarted && moveDelta == 0) {
             moves++;
             txtMoves.setText(String.valueOf(moves));
+            Metrics.record(Metrics.MOVE, gameTimer.lap());
         }
         soundManager.playSwap();
         updateProgress();
@@ -299,18 +580,71 @@ public class MainActivity extends AppCompatActivity implements PuzzleView.Puzzle
         }
     }
 
+    @Override
+    public void onPieceDropped(int joins, int groupCount) {
+        if (gameStarted) {
+            moves++;
+            txtMoves.setText(String.valueOf(moves));
+            Metrics.record(Metrics.MOVE, gameTimer.lap());
+        }
+        soundManager.playSwap();
+        updateProgress();
+
+        if (joins > 0) {
+            soundManager.playCorrect();
+        }
+    }
+
+    // Table games are not saved or added to the stats, which only know swap and slide games.
+    @Override
+    public void onTableComplete() {
+        gameTimer.stop();
+        gameStarted = false;
+        soundManager.playWin();
+
+        tableView.postDelayed(this::showCelebrationDialog, 500);
+    }
+
+    @Override
+    public void onTableReady() {
+        startNewGame();
+    }
+
     @Override
     public void onPuzzleComplete() {
         gameTimer.stop();
         gameStarted = false;
+        saveGameStore.clear();
+        if (!puzzleView.wasAutoSolved()) {
+            Board board = puzzleView.getBoard();
+            gameStats.record(new GameRecord(board.getGridSize(), puzzleView.isSlidingMode(), moves,
+                gameTimer.getElapsedNanos(), imageHash, puzzleView.getSeed(), System.currentTimeMillis()));
+        }
         soundManager.playWin();
 
         puzzleView.postDelayed(this::showCelebrationDialog, 500);
     }
 
     @Override
-    public void onTick(String formattedTime) {
-        txtTimer.setText(formattedTime);
+    public void onPuzzleReady() {
+        if (tableMode) return;
+        if (pendingRestore != null) {
+            GameSnapshot snapshot = pendingRestore;
+            pendingRestore = null;
+            resumeGame(snapshot);
+        } else {
+            startNewGame();
+        }
+    }
+
+    @Override
+    public void onSolverFailed() {
+        Toast.makeText(this, R.string.solver_failed, Toast.LENGTH_SHORT).show();
+    }
+
+    @Override
+    public void onTick(char[] text, int length) {
+        txtTimer.setText(text, 0, length);
     }
 
     @Override
@@ -318,6 +652,7 @@ public class MainActivity extends AppCompatActivity implements PuzzleView.Puzzle
         super.onPause();
         if (gameStarted) {
             gameTimer.stop();
+            saveGame();
         }
     }
 
@@ -333,5 +668,6 @@ public class MainActivity extends AppCompatActivity implements PuzzleView.Puzzle
     protected void onDestroy() {
         super.onDestroy();
         gameTimer.stop();
+        imageLoader.shutdown();
     }
 }
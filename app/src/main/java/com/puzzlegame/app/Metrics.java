@@ -0,0 +1,148 @@
+package com.puzzlegame.app;
+
+import android.os.Debug;
+import android.os.Trace;
+
+import com.puzzlegame.core.LatencyHistogram;
+
+import org.json.JSONException;
+import org.json.JSONObject;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Timings for the hot paths. A section is an {@link Trace} section (visible
+ * in system traces) plus a sample in a lock-free histogram. While disabled,
+ * {@link #begin} is a single volatile read and {@link #end} returns at once.
+ *
+ * <pre>
+ * long start = Metrics.begin(Metrics.DRAW);
+ * ...
+ * Metrics.end(Metrics.DRAW, start);
+ * </pre>
+ */
+public final class Metrics {
+    public static final int DRAW = 0;
+    public static final int BOARD_BUILD = 1;
+    public static final int IMAGE_DECODE = 2;
+    public static final int TONE_BANK = 3;
+    public static final int AUDIO_MIX = 4;
+    public static final int FRAME = 5;
+    public static final int REGION_DECODE = 6;
+    public static final int TABLE_DRAW = 7;
+    public static final int WEB_FIRST_FRAME = 8;
+    public static final int MOVE = 9;
+
+    private static final LatencyHistogram[] HISTOGRAMS = {
+        new LatencyHistogram("PuzzleView.onDraw"),
+        new LatencyHistogram("BoardBuilder.build"),
+        new LatencyHistogram("ImageLoader.decode"),
+        new LatencyHistogram("ToneBank.loadOrRender"),
+        new LatencyHistogram("AudioEngine.mix"),
+        new LatencyHistogram("Choreographer.frame"),
+        new LatencyHistogram("RegionTiles.decode"),
+        new LatencyHistogram("JigsawTableView.onDraw"),
+        new LatencyHistogram("WebGameActivity.firstFrame"),
+        new LatencyHistogram("MainActivity.move"),
+    };
+
+    private static volatile boolean enabled = false;
+
+    private Metrics() {
+    }
+
+    public static void setEnabled(boolean enabled) {
+        Metrics.enabled = enabled;
+    }
+
+    public static boolean isEnabled() {
+        return enabled;
+    }
+
+    /** Opens a section; returns 0 when disabled, which {@link #end} then ignores. */
+    public static long begin(int metric) {
+        if (!enabled) return 0;
+        Trace.beginSection(HISTOGRAMS[metric].getName());
+        return System.nanoTime();
+    }
+
+    public static void end(int metric, long start) {
+        if (start == 0) return;
+        HISTOGRAMS[metric].record(System.nanoTime() - start);
+        Trace.endSection();
+    }
+
+    /** Adds a sample measured elsewhere, e.g. a frame interval. */
+    public static void record(int metric, long nanos) {
+        if (enabled) {
+            HISTOGRAMS[metric].record(nanos);
+        }
+    }
+
+    /**
+     * Adds a sample even while disabled, for one-off events such as start-up
+     * that are over before anyone can turn metrics on.
+     */
+    public static void recordAlways(int metric, long nanos) {
+        HISTOGRAMS[metric].record(nanos);
+    }
+
+    public static LatencyHistogram get(int metric) {
+        return HISTOGRAMS[metric];
+    }
+
+    /** Clears every histogram except {@link #WEB_FIRST_FRAME}, which only gets a sample per launch. */
+    public static void reset() {
+        for (int metric = 0; metric < HISTOGRAMS.length; metric++) {
+            if (metric != WEB_FIRST_FRAME) {
+                HISTOGRAMS[metric].reset();
+            }
+        }
+    }
+
+    public static long gcCount() {
+        String count = Debug.getRuntimeStat("art.gc.gc-count");
+        try {
+            return count != null ? Long.parseLong(count) : -1;
+        } catch (NumberFormatException e) {
+            return -1;
+        }
+    }
+
+    /** Writes every histogram plus GC and bitmap memory figures to a timestamped JSON file in {@code dir}. */
+    public static File dumpJson(File dir) throws IOException {
+        JSONObject root = new JSONObject();
+        try {
+            root.put("timestampMillis", System.currentTimeMillis());
+            root.put("gcCount", gcCount());
+            root.put("boardCacheBytes", BoardCache.getInstance().sizeBytes());
+            root.put("nativeHeapAllocatedBytes", Debug.getNativeHeapAllocatedSize());
+            JSONObject metrics = new JSONObject();
+            for (LatencyHistogram histogram : HISTOGRAMS) {
+                JSONObject entry = new JSONObject();
+                entry.put("count", histogram.getCount());
+                entry.put("meanNanos", histogram.getMeanNanos());
+                entry.put("p50Nanos", histogram.percentile(50));
+                entry.put("p90Nanos", histogram.percentile(90));
+                entry.put("p99Nanos", histogram.percentile(99));
+                entry.put("maxNanos", histogram.getMaxNanos());
+                metrics.put(histogram.getName(), entry);
+            }
+            root.put("metrics", metrics);
+        } catch (JSONException e) {
+            throw new IOException(e);
+        }
+
+        if (!dir.isDirectory() && !dir.mkdirs()) {
+            throw new IOException("Could not create " + dir);
+        }
+        File file = new File(dir, "metrics-" + System.currentTimeMillis() + ".json");
+        try (FileOutputStream out = new FileOutputStream(file)) {
+            out.write(root.toString().getBytes(StandardCharsets.UTF_8));
+        }
+        return file;
+    }
+}
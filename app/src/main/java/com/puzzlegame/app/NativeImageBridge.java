@@ -0,0 +1,37 @@
+package com.puzzlegame.app;
+
+import android.os.Handler;
+import android.os.Looper;
+import android.webkit.JavascriptInterface;
+
+/**
+ * The page's {@code YapbozNative} object: lets the web game ask the app for
+ * a photo instead of reading one itself. The chosen photo comes back as a
+ * {@link WebImageServer} handle through the page's {@code onNativeImage}.
+ * WebViews outlive activities in {@link WebViewPool}, so the picker is set
+ * by whichever activity currently shows the game.
+ */
+final class NativeImageBridge {
+
+    static final String NAME = "YapbozNative";
+
+    interface Picker {
+        void pickImage();
+    }
+
+    private static final Handler mainHandler = new Handler(Looper.getMainLooper());
+    private static Picker picker;
+
+    static void setPicker(Picker picker) {
+        NativeImageBridge.picker = picker;
+    }
+
+    @JavascriptInterface
+    public void pickImage() {
+        mainHandler.post(() -> {
+            if (picker != null) {
+                picker.pickImage();
+            }
+        });
+    }
+}
@@ -0,0 +1,146 @@
+package com.puzzlegame.app;
+
+import android.content.Context;
+import android.graphics.Canvas;
+import android.graphics.Color;
+import android.graphics.Paint;
+import android.graphics.Typeface;
+import android.os.Debug;
+import android.view.Choreographer;
+import android.view.View;
+
+import com.puzzlegame.core.LatencyHistogram;
+
+/**
+ * Debug overlay with frame time, draw time, time between the player's
+ * moves, GC count and bitmap memory.
+ * Frame intervals come from Choreographer while the overlay is attached;
+ * the text is refreshed twice a second into reused builders.
+ */
+public class PerfOverlayView extends View implements Choreographer.FrameCallback {
+
+    private static final long REFRESH_NANOS = 500_000_000L;
+    private static final int LINES = 5;
+    private static final String WIDEST_LINE = "bitmaps 999.9 MB cache · 999.9 MB native";
+
+    private final StringBuilder[] lines = new StringBuilder[LINES];
+    private final Paint textPaint;
+    private final Paint backgroundPaint;
+    private final float padding;
+    private long lastFrameNanos;
+    private long lastRefreshNanos;
+
+    public PerfOverlayView(Context context) {
+        super(context);
+        float density = context.getResources().getDisplayMetrics().density;
+        padding = 6 * density;
+
+        textPaint = new Paint(Paint.ANTI_ALIAS_FLAG);
+        textPaint.setColor(Color.WHITE);
+        textPaint.setTextSize(11 * density);
+        textPaint.setTypeface(Typeface.MONOSPACE);
+
+        backgroundPaint = new Paint();
+        backgroundPaint.setColor(Color.argb(170, 0, 0, 0));
+
+        for (int i = 0; i < LINES; i++) {
+            lines[i] = new StringBuilder(64);
+        }
+    }
+
+    @Override
+    protected void onAttachedToWindow() {
+        super.onAttachedToWindow();
+        lastFrameNanos = 0;
+        Choreographer.getInstance().postFrameCallback(this);
+    }
+
+    @Override
+    protected void onDetachedFromWindow() {
+        super.onDetachedFromWindow();
+        Choreographer.getInstance().removeFrameCallback(this);
+    }
+
+    @Override
+    public void doFrame(long frameTimeNanos) {
+        if (lastFrameNanos != 0) {
+            Metrics.record(Metrics.FRAME, frameTimeNanos - lastFrameNanos);
+        }
+        lastFrameNanos = frameTimeNanos;
+
+        if (frameTimeNanos - lastRefreshNanos >= REFRESH_NANOS) {
+            lastRefreshNanos = frameTimeNanos;
+            refresh();
+            invalidate();
+        }
+        Choreographer.getInstance().postFrameCallback(this);
+    }
+
+    private void refresh() {
+        LatencyHistogram frame = Metrics.get(Metrics.FRAME);
+        LatencyHistogram draw = Metrics.get(Metrics.DRAW);
+        LatencyHistogram move = Metrics.get(Metrics.MOVE);
+
+        StringBuilder line = lines[0];
+        line.setLength(0);
+        line.append("frame   p50 ");
+        appendMillis(line, frame.percentile(50));
+        line.append(" p95 ");
+        appendMillis(line, frame.percentile(95));
+
+        line = lines[1];
+        line.setLength(0);
+        line.append("draw    p50 ");
+        appendMillis(line, draw.percentile(50));
+        line.append(" p95 ");
+        appendMillis(line, draw.percentile(95));
+
+        line = lines[2];
+        line.setLength(0);
+        line.append("move    p50 ");
+        appendMillis(line, move.percentile(50));
+        line.append(" p95 ");
+        appendMillis(line, move.percentile(95));
+
+        line = lines[3];
+        line.setLength(0);
+        line.append("gc      ").append(Metrics.gcCount());
+
+        line = lines[4];
+        line.setLength(0);
+        line.append("bitmaps ");
+        appendMegabytes(line, BoardCache.getInstance().sizeBytes());
+        line.append(" cache · ");
+        appendMegabytes(line, Debug.getNativeHeapAllocatedSize());
+        line.append(" native");
+    }
+
+    private static void appendMillis(StringBuilder out, long nanos) {
+        long tenths = nanos / 100_000;
+        out.append(tenths / 10).append('.').append(tenths % 10).append(" ms");
+    }
+
+    private static void appendMegabytes(StringBuilder out, long bytes) {
+        long tenths = bytes * 10 / (1024 * 1024);
+        out.append(tenths / 10).append('.').append(tenths % 10).append(" MB");
+    }
+
+    @Override
+    protected void onMeasure(int widthMeasureSpec, int heightMeasureSpec) {
+        float lineHeight = textPaint.getFontSpacing();
+        int width = (int) (textPaint.measureText(WIDEST_LINE) + 2 * padding);
+        int height = (int) (LINES * lineHeight + 2 * padding);
+        setMeasuredDimension(width, height);
+    }
+
+    @Override
+    protected void onDraw(Canvas canvas) {
+        canvas.drawRect(0, 0, getWidth(), getHeight(), backgroundPaint);
+        float lineHeight = textPaint.getFontSpacing();
+        float baseline = padding - textPaint.ascent();
+        for (StringBuilder line : lines) {
+            canvas.drawText(line, 0, line.length(), padding, baseline, textPaint);
+            baseline += lineHeight;
+        }
+    }
+}
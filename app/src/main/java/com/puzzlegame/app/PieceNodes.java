@@ -0,0 +1,129 @@
+package com.puzzlegame.app;
+
+import android.graphics.Canvas;
+import android.graphics.RecordingCanvas;
+import android.graphics.RenderNode;
+import android.os.Build;
+
+import androidx.annotation.RequiresApi;
+
+import java.util.Arrays;
+
+/**
+ * Display lists behind PuzzleView on API 29+. The still part of the board
+ * is split into bands of rows, each its own node, so a change re-records
+ * only the bands it touches; the borders are one more node on top. Each
+ * tile that moves gets its own node, recorded the first time it moves and
+ * afterwards only re-positioned, so an animation frame costs a few
+ * drawRenderNode calls whatever the grid size.
+ */
+@RequiresApi(Build.VERSION_CODES.Q)
+final class PieceNodes {
+
+    /** Draws one tile's content with its square's top-left at (0, 0). */
+    interface TileDrawer {
+        void drawTile(Canvas canvas, int tile);
+    }
+
+    private final RenderNode borders = new RenderNode("PuzzleView.borders");
+    private boolean bordersDirty = true;
+    private RenderNode[] bands = new RenderNode[0];
+    private boolean[] bandDirty = new boolean[0];
+    private RenderNode[] tiles = new RenderNode[0];
+    private int pieceSize;
+
+    /** Drops every recording; call when the board or the way its pieces look changes. */
+    void reset(int pieceSize, int tileCount, int bandCount) {
+        discard();
+        this.pieceSize = pieceSize;
+        tiles = new RenderNode[tileCount];
+        bands = new RenderNode[bandCount];
+        bandDirty = new boolean[bandCount];
+        for (int i = 0; i < bandCount; i++) {
+            bands[i] = new RenderNode("PuzzleView.band");
+        }
+        markAllDirty();
+    }
+
+    int getBandCount() {
+        return bands.length;
+    }
+
+    void markDirty(int band) {
+        bandDirty[band] = true;
+    }
+
+    void markAllDirty() {
+        Arrays.fill(bandDirty, true);
+        bordersDirty = true;
+    }
+
+    boolean isDirty(int band) {
+        return bandDirty[band] || !bands[band].hasDisplayList();
+    }
+
+    RecordingCanvas beginBand(int band, int width, int height) {
+        bands[band].setPosition(0, 0, width, height);
+        return bands[band].beginRecording(width, height);
+    }
+
+    void endBand(int band) {
+        bands[band].endRecording();
+        bandDirty[band] = false;
+    }
+
+    boolean hasBorders() {
+        return !bordersDirty && borders.hasDisplayList();
+    }
+
+    RecordingCanvas beginBorders(int width, int height) {
+        borders.setPosition(0, 0, width, height);
+        return borders.beginRecording(width, height);
+    }
+
+    void endBorders() {
+        borders.endRecording();
+        bordersDirty = false;
+    }
+
+    void drawBoard(Canvas canvas) {
+        for (RenderNode band : bands) {
+            canvas.drawRenderNode(band);
+        }
+        canvas.drawRenderNode(borders);
+    }
+
+    /** Draws {@code tile} with its top-left at ({@code left}, {@code top}), scaled about its centre. */
+    void drawTile(Canvas canvas, int tile, float left, float top, float scale, TileDrawer drawer) {
+        RenderNode node = tiles[tile];
+        if (node == null) {
+            node = new RenderNode("PuzzleView.tile");
+            node.setPosition(0, 0, pieceSize, pieceSize);
+            // Jigsaw tabs reach past the square.
+            node.setClipToBounds(false);
+            node.setPivotX(pieceSize / 2f);
+            node.setPivotY(pieceSize / 2f);
+            drawer.drawTile(node.beginRecording(pieceSize, pieceSize), tile);
+            node.endRecording();
+            tiles[tile] = node;
+        }
+        node.setTranslationX(left);
+        node.setTranslationY(top);
+        node.setScaleX(scale);
+        node.setScaleY(scale);
+        canvas.drawRenderNode(node);
+    }
+
+    void discard() {
+        borders.discardDisplayList();
+        for (RenderNode band : bands) {
+            band.discardDisplayList();
+        }
+        for (RenderNode node : tiles) {
+            if (node != null) {
+                node.discardDisplayList();
+            }
+        }
+        Arrays.fill(tiles, null);
+    }
+}
@@ -8,6 +8,7 @@ public class PreferenceManager {
     private static final String KEY_LANGUAGE = "language";
     private static final String KEY_FIRST_LAUNCH = "first_launch";
     private static final String KEY_SOUND_ENABLED = "sound_enabled";
+    private static final String KEY_JIGSAW_ENABLED = "jigsaw_enabled";
 
     private final SharedPreferences prefs;
 
@@ -38,4 +39,12 @@ public class PreferenceManager {
     public void setSoundEnabled(boolean enabled) {
         prefs.edit().putBoolean(KEY_SOUND_ENABLED, enabled).apply();
     }
+
+    public boolean isJigsawEnabled() {
+        return prefs.getBoolean(KEY_JIGSAW_ENABLED, false);
+    }
+
+    public void setJigsawEnabled(boolean enabled) {
+        prefs.edit().putBoolean(KEY_JIGSAW_ENABLED, enabled).apply();
+    }
 }
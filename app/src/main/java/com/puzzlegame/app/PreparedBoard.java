@@ -0,0 +1,45 @@
+package com.puzzlegame.app;
+
+import android.graphics.Bitmap;
+
+import com.puzzlegame.core.TileGeometry;
+
+/**
+ * A board ready to draw: the image scaled to the board once, plus the
+ * tile geometry every cell is cut from.
+ */
+public class PreparedBoard {
+    private final Bitmap image;
+    private final TileGeometry geometry;
+
+    private PreparedBoard(Bitmap image, TileGeometry geometry) {
+        this.image = image;
+        this.geometry = geometry;
+    }
+
+    public static PreparedBoard build(Bitmap source, int gridSize, int availableSize) {
+        TileGeometry geometry = new TileGeometry(gridSize, availableSize);
+        Bitmap scaled = Utils.scaleBitmap(source, geometry.getBoardSize());
+        return new PreparedBoard(scaled, geometry);
+    }
+
+    public Bitmap getImage() {
+        return image;
+    }
+
+    public TileGeometry getGeometry() {
+        return geometry;
+    }
+
+    public int getGridSize() {
+        return geometry.getGridSize();
+    }
+
+    public int getPieceSize() {
+        return geometry.getPieceSize();
+    }
+
+    public int getBoardSize() {
+        return geometry.getBoardSize();
+    }
+}
@@ -0,0 +1,24 @@
+package com.puzzlegame.app;
+
+import android.app.Application;
+import android.content.ComponentCallbacks2;
+
+public class PuzzleApplication extends Application {
+
+    @Override
+    public void onCreate() {
+        super.onCreate();
+        // The launcher activity is the WebView game: start Chromium and the page
+        // load now so they overlap the activity's own start-up.
+        WebViewPool.warmUp(this);
+    }
+
+    @Override
+    public void onTrimMemory(int level) {
+        super.onTrimMemory(level);
+        if (level >= ComponentCallbacks2.TRIM_MEMORY_BACKGROUND) {
+            WebViewPool.trim();
+            WebImageServer.getInstance().trimMemory();
+        }
+    }
+}
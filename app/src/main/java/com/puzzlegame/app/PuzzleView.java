@@ -5,65 +5,280 @@ import android.graphics.Bitmap;
 import android.graphics.Canvas;
 import android.graphics.Color;
 import android.graphics.Paint;
+import android.graphics.Rect;
 import android.graphics.RectF;
+import android.net.Uri;
+import android.os.Build;
 import android.util.AttributeSet;
+import android.view.GestureDetector;
 import android.view.MotionEvent;
+import android.view.ScaleGestureDetector;
 import android.view.View;
+import android.view.ViewConfiguration;
+import android.widget.OverScroller;
 
-import java.util.ArrayList;
-import java.util.List;
+import androidx.annotation.RequiresApi;
 
-public class PuzzleView extends View {
+import com.puzzlegame.core.Board;
+import com.puzzlegame.core.GameSnapshot;
+import com.puzzlegame.core.HintEngine;
+import com.puzzlegame.core.JigsawEdges;
+import com.puzzlegame.core.Scrambler;
+import com.puzzlegame.core.SlidingPlan;
+import com.puzzlegame.core.SlidingPuzzle;
+import com.puzzlegame.core.TileGeometry;
+import com.puzzlegame.core.Viewport;
+
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.SplittableRandom;
+
+public class PuzzleView extends View implements Board.Listener {
+
+    public static final int MAX_GRID_SIZE = 64;
+
+    private static final int FLAG_CORRECT = 1;
+    private static final int FLAG_SELECTED = 1 << 1;
+    private static final int FLAG_HINTED = 1 << 2;
+    // Drawn above the board (dragged or gliding), so left out of the still layer.
+    private static final int FLAG_MOVING = 1 << 3;
+
+    private static final long AUTO_SOLVE_STEP_MS = 150;
+
+    // Below this piece size the ✓ glyph and inner highlights are unreadable.
+    private static final int MIN_DECORATED_PIECE_SIZE = 40;
+
+    private static final float DRAG_SCALE = 1.08f;
+
+    // Rows per display-list band are chosen so a band holds about this many cells.
+    private static final int BAND_CELLS = 64;
+
+    private static final float MIN_MAX_ZOOM = 2f;
+    // Below this zoom the board atlas has about a pixel per screen pixel.
+    private static final float DETAIL_MIN_ZOOM = 1.25f;
+    // Above this many visible cells zoomed pieces come from the atlas only.
+    private static final int MAX_DETAIL_CELLS = 256;
 
     private Bitmap originalImage;
-    private final List<PuzzlePiece> pieces;
+    private Bitmap boardImage;
+    private int imageId;
     private int gridSize = 2;
+    private int requestedGridSize = 2;
     private int pieceSize;
     private int boardSize;
     private int offsetX, offsetY;
+    private TileGeometry geometry;
     private int selectedIndex = -1;
+    private int hintedIndex = -1;
+    private int hintedPartner = -1;
+
+    private Board board;
+    // Per-cell FLAG_* bits; FLAG_CORRECT mirrors the board for drawing.
+    private byte[] flags = new byte[0];
+    private float[] gridLines = new float[0];
+
+    private boolean slidingMode = false;
+    // Swap-mode pieces are cut with tabs and blanks instead of squares.
+    private boolean jigsawMode = false;
+    private JigsawShapes jigsawShapes;
+    private SlidingSolverService slidingSolver;
+    private SlidingPlan slidingPlan;
+    private boolean planPending = false;
+    // Slides made while the solver was still running, replayed onto its plan.
+    private int[] pendingSlides = new int[16];
+    private int pendingSlideCount = 0;
+    private boolean autoSolving = false;
+    private boolean autoSolveRequested = false;
+    private boolean autoSolveUsed = false;
+    private final SplittableRandom seedSource = new SplittableRandom();
+    private long seed;
+    // Applied instead of a fresh shuffle once the restored image's board is built.
+    private GameSnapshot pendingRestore;
+
+    private final Rect srcRect = new Rect();
+    private final RectF dstRect = new RectF();
+    private final Rect clipBounds = new Rect();
+    // View-space area changed since the last invalidate.
+    private final Rect damage = new Rect();
+    private int rowsPerBand = 1;
+
+    private final TileMotions motions = new TileMotions();
+    private final float[] motionPoint = new float[2];
+    private boolean motionFramePosted = false;
+    private final int touchSlop;
+    private int downCell = -1;
+    private float downX, downY;
+    // Dragged cell and its tile's top-left in board coordinates.
+    private int dragCell = -1;
+    private float dragX, dragY;
+    private PieceNodes pieceNodes;
+
+    private final Viewport viewport = new Viewport();
+    // Rebuilt from imageSource on attach after a detach released it.
+    private Uri imageSource;
+    private RegionTiles regionTiles;
+    private final Paint detailPaint = new Paint(Paint.FILTER_BITMAP_FLAG);
 
     private final Paint borderPaint;
     private final Paint selectedPaint;
     private final Paint correctPaint;
     private final Paint hintPaint;
     private final Paint checkPaint;
+    private final Paint outlinePaint = createOutlinePaint();
+    private final PieceNodes.TileDrawer tileDrawer = this::drawTileContent;
 
+    private final BoardBuilder boardBuilder = new BoardBuilder();
+    private final BoardCache boardCache = BoardCache.getInstance();
     private PuzzleListener listener;
 
+    private final Runnable clearHint = () -> {
+        clearHintFlags();
+        invalidateDamage();
+    };
+
+    private final Runnable motionFrame = new Runnable() {
+        @Override
+        public void run() {
+            motionFramePosted = false;
+            long now = System.nanoTime();
+            // Each glide runs in a straight line, so its start and end cover its path.
+            for (int i = motions.size() - 1; i >= 0; i--) {
+                int cell = motions.cellAt(i);
+                addDamage(motions.fromX(i), motions.fromY(i));
+                addDamage(geometry.cellLeft(cell), geometry.cellTop(cell));
+                if (motions.isFinished(i, now)) {
+                    motions.remove(i);
+                    if (cell != dragCell && cell < flags.length) {
+                        flags[cell] &= ~FLAG_MOVING;
+                        // Landed: back into the still layer.
+                        markCellDirty(cell);
+                    }
+                }
+            }
+            if (motions.size() > 0) {
+                scheduleMotionFrame();
+            }
+            invalidateDamage();
+        }
+    };
+
+    private final ScaleGestureDetector scaleDetector = new ScaleGestureDetector(getContext(),
+        new ScaleGestureDetector.SimpleOnScaleGestureListener() {
+            @Override
+            public boolean onScaleBegin(ScaleGestureDetector detector) {
+                stopFling();
+                return board != null;
+            }
+
+            @Override
+            public boolean onScale(ScaleGestureDetector detector) {
+                viewport.zoomBy(detector.getScaleFactor(), detector.getFocusX(), detector.getFocusY());
+                invalidate();
+                return true;
+            }
+        });
+
+    // Sees every event but only acts while zoomed: one finger pans and flings, a tap still selects.
+    private final GestureDetector panDetector = new GestureDetector(getContext(),
+        new GestureDetector.SimpleOnGestureListener() {
+            @Override
+            public boolean onDown(MotionEvent e) {
+                stopFling();
+                return true;
+            }
+
+            @Override
+            public boolean onScroll(MotionEvent e1, MotionEvent e2, float distanceX, float distanceY) {
+                if (!viewport.isZoomed()) return false;
+                viewport.panBy(-distanceX, -distanceY);
+                invalidate();
+                return true;
+            }
+
+            @Override
+            public boolean onFling(MotionEvent e1, MotionEvent e2, float velocityX, float velocityY) {
+                if (!viewport.isZoomed()) return false;
+                scroller.fling(
+                    (int) viewport.getTranslateX(), (int) viewport.getTranslateY(),
+                    (int) velocityX, (int) velocityY,
+                    (int) viewport.minTranslateX(), (int) viewport.maxTranslateX(),
+                    (int) viewport.minTranslateY(), (int) viewport.maxTranslateY());
+                postOnAnimation(flingFrame);
+                return true;
+            }
+
+            @Override
+            public boolean onSingleTapUp(MotionEvent e) {
+                if (!viewport.isZoomed()) return false;
+                int cell = cellAt(e.getX(), e.getY());
+                if (cell >= 0) {
+                    handlePieceTouch(cell);
+                }
+                return true;
+            }
+        });
+
+    private final OverScroller scroller = new OverScroller(getContext());
+
+    private final Runnable flingFrame = new Runnable() {
+        @Override
+        public void run() {
+            if (!scroller.computeScrollOffset()) return;
+            viewport.setTranslation(scroller.getCurrX(), scroller.getCurrY());
+            invalidate();
+            postOnAnimation(this);
+        }
+    };
+
+    private final Runnable autoSolveStep = new Runnable() {
+        @Override
+        public void run() {
+            if (!autoSolving || board == null || slidingPlan == null) return;
+            int cell = slidingPlan.next();
+            if (cell < 0) {
+                autoSolving = false;
+                return;
+            }
+            slide(cell, gapCell());
+            postDelayed(this, AUTO_SOLVE_STEP_MS);
+        }
+    };
+
     public interface PuzzleListener {
         void onPieceSwapped(int moveDelta, int correctCount);
         void onPuzzleComplete();
+        void onPuzzleReady();
+        void onSolverFailed();
     }
 
     public PuzzleView(Context context) {
         super(context);
-        pieces = new ArrayList<>();
         borderPaint = createBorderPaint();
         selectedPaint = createSelectedPaint();
         correctPaint = createCorrectPaint();
         hintPaint = createHintPaint();
         checkPaint = createCheckPaint();
+        touchSlop = ViewConfiguration.get(context).getScaledTouchSlop();
     }
 
     public PuzzleView(Context context, AttributeSet attrs) {
         super(context, attrs);
-        pieces = new ArrayList<>();
         borderPaint = createBorderPaint();
         selectedPaint = createSelectedPaint();
         correctPaint = createCorrectPaint();
         hintPaint = createHintPaint();
         checkPaint = createCheckPaint();
+        touchSlop = ViewConfiguration.get(context).getScaledTouchSlop();
     }
 
     public PuzzleView(Context context, AttributeSet attrs, int defStyleAttr) {
         super(context, attrs, defStyleAttr);
-        pieces = new ArrayList<>();
         borderPaint = createBorderPaint();
         selectedPaint = createSelectedPaint();
         correctPaint = createCorrectPaint();
         hintPaint = createHintPaint();
         checkPaint = createCheckPaint();
+        touchSlop = ViewConfiguration.get(context).getScaledTouchSlop();
     }
 
     public void setListener(PuzzleListener listener) {
@@ -71,241 +286,849 @@ public class PuzzleView extends View {
     }
 
     public void setGridSize(int size) {
-        this.gridSize = size;
+        this.requestedGridSize = Math.max(2, Math.min(size, MAX_GRID_SIZE));
+        pendingRestore = null;
         if (originalImage != null) {
             createPuzzle();
         }
     }
 
     public int getGridSize() {
-        return gridSize;
+        return requestedGridSize;
     }
 
     public void setImage(Bitmap bitmap) {
+        setImage(bitmap, null);
+    }
+
+    /**
+     * Like {@link #setImage(Bitmap)}; {@code source} is the full image
+     * {@code bitmap} was decoded from, used for sharp pieces when zoomed in.
+     */
+    public void setImage(Bitmap bitmap, Uri source) {
+        setImageSource(source);
         this.originalImage = Utils.cropToSquare(bitmap);
+        this.imageId = boardCache.newImageId();
+        createPuzzle();
+    }
+
+    /**
+     * Shows {@code image} with the snapshot's grid size, mode and layout.
+     * {@code image} must already be square, as stored by {@link SaveGameStore}.
+     */
+    public void restore(Bitmap image, GameSnapshot snapshot) {
+        this.requestedGridSize = snapshot.getGridSize();
+        this.slidingMode = snapshot.isSliding();
+        this.pendingRestore = snapshot;
+        setImageSource(null);
+        this.originalImage = image;
+        this.imageId = boardCache.newImageId();
         createPuzzle();
     }
 
+    private void setImageSource(Uri source) {
+        releaseRegionTiles();
+        imageSource = source;
+        openRegionTiles();
+    }
+
+    private void openRegionTiles() {
+        if (imageSource == null || regionTiles != null) return;
+        regionTiles = new RegionTiles(getContext().getContentResolver(), imageSource, () -> invalidate());
+        if (board != null) {
+            regionTiles.setGridSize(gridSize);
+        }
+    }
+
+    private void releaseRegionTiles() {
+        if (regionTiles != null) {
+            regionTiles.release();
+            regionTiles = null;
+        }
+    }
+
     public Bitmap getOriginalImage() {
         return originalImage;
     }
 
+    public Board getBoard() {
+        return board;
+    }
+
+    public void setSlidingMode(boolean enabled) {
+        if (slidingMode == enabled) return;
+        slidingMode = enabled;
+        pendingRestore = null;
+        resetNodes();
+        shuffle();
+    }
+
+    public boolean isSlidingMode() {
+        return slidingMode;
+    }
+
+    /** Cuts swap-mode pieces jigsaw style; the game itself is unchanged. */
+    public void setJigsawMode(boolean enabled) {
+        if (jigsawMode == enabled) return;
+        jigsawMode = enabled;
+        buildJigsawShapes();
+        resetNodes();
+        invalidateBoard();
+    }
+
+    public boolean isJigsawMode() {
+        return jigsawMode;
+    }
+
+    public long getSeed() {
+        return seed;
+    }
+
     public void shuffle() {
-        if (pieces.isEmpty()) return;
+        shuffle(seedSource.nextLong());
+    }
 
-        int[] indices = new int[pieces.size()];
-        for (int i = 0; i < indices.length; i++) {
-            indices[i] = pieces.get(i).getOriginalIndex();
-        }
-        Utils.shuffleArray(indices);
+    /** Deals the board for {@code seed}; the same seed, size and mode give the same board. */
+    public void shuffle(long seed) {
+        if (board == null) return;
 
-        for (int i = 0; i < pieces.size(); i++) {
-            pieces.get(i).setOriginalIndex(indices[i]);
-            pieces.get(i).setSelected(false);
-            pieces.get(i).setHinted(false);
+        int[] tiles = slidingMode
+            ? SlidingPuzzle.scramble(gridSize, seed)
+            : new Scrambler(seed).scramble(board.getCellCount());
+        deal(seed, tiles);
+    }
 
-            int row = indices[i] / gridSize;
-            int col = indices[i] % gridSize;
-            Bitmap pieceBitmap = Bitmap.createBitmap(
-                originalImage,
-                col * pieceSize,
-                row * pieceSize,
-                pieceSize,
-                pieceSize
-            );
-            pieces.get(i).setBitmap(pieceBitmap);
+    private void deal(long seed, int[] tiles) {
+        this.seed = seed;
+        stopAutoSolve();
+        autoSolveUsed = false;
+        slidingPlan = null;
+        planPending = false;
+        if (slidingSolver != null) {
+            slidingSolver.cancel();
         }
-
+        removeCallbacks(clearHint);
+        hintedIndex = -1;
+        hintedPartner = -1;
         selectedIndex = -1;
-        checkCorrectPieces();
-        invalidate();
+        clearMotions();
+        board.setPermutation(tiles);
+        invalidateBoard();
+
+        if (slidingMode) {
+            requestSlidingPlan();
+        }
     }
 
     public void showHint() {
-        for (PuzzlePiece piece : pieces) {
-            piece.setHinted(false);
+        removeCallbacks(clearHint);
+        clearHintFlags();
+
+        if (board == null) return;
+
+        if (slidingMode) {
+            // The solver's plan when ready, otherwise a greedy Manhattan move.
+            int cell = slidingPlan != null ? slidingPlan.next()
+                : SlidingPuzzle.suggestSlide(board.copyPermutation(), gridSize);
+            if (cell >= 0) {
+                hintedIndex = cell;
+                flags[cell] |= FLAG_HINTED;
+                markCellDirty(cell);
+                invalidateDamage();
+                postDelayed(clearHint, 2000);
+            }
+            return;
         }
 
-        for (int i = 0; i < pieces.size(); i++) {
-            PuzzlePiece piece = pieces.get(i);
-            if (piece.getOriginalIndex() != i) {
-                piece.setHinted(true);
-                invalidate();
+        // Highlight a swap that puts a tile home; it always lowers the moves left by one.
+        HintEngine hints = board.getHints();
+        int cell = hints.suggestCell();
+        if (cell >= 0) {
+            hintedIndex = cell;
+            hintedPartner = hints.suggestPartner(cell);
+            flags[hintedIndex] |= FLAG_HINTED;
+            flags[hintedPartner] |= FLAG_HINTED;
+            markCellDirty(hintedIndex);
+            markCellDirty(hintedPartner);
+            invalidateDamage();
+            postDelayed(clearHint, 2000);
+        }
+    }
 
-                postDelayed(() -> {
-                    piece.setHinted(false);
-                    invalidate();
-                }, 2000);
+    /**
+     * Moves left in the current plan, or -1 while the sliding solver has not
+     * answered yet. Swap mode's count is the true minimum; a sliding plan
+     * grows by one undo per detour and may then be longer than the minimum.
+     */
+    public int getMovesLeft() {
+        if (board == null) return 0;
+        if (slidingMode) {
+            return slidingPlan != null ? slidingPlan.remaining() : -1;
+        }
+        return board.getHints().getMovesLeft();
+    }
 
-                break;
+    /**
+     * Plays the solver's plan one slide at a time. Returns false when the
+     * current grid size has no solver.
+     */
+    public boolean autoSolve() {
+        if (board == null || !slidingMode || !getSlidingSolver().isSupported(gridSize)) return false;
+        clearHintFlags();
+        autoSolveUsed = true;
+        if (slidingPlan != null) {
+            autoSolving = true;
+            post(autoSolveStep);
+        } else {
+            autoSolveRequested = true;
+        }
+        return true;
+    }
+
+    /** True if the current deal was (partly) played by {@link #autoSolve()}. */
+    public boolean wasAutoSolved() {
+        return autoSolveUsed;
+    }
+
+    private void stopAutoSolve() {
+        autoSolving = false;
+        autoSolveRequested = false;
+        removeCallbacks(autoSolveStep);
+    }
+
+    private SlidingSolverService getSlidingSolver() {
+        if (slidingSolver == null) {
+            slidingSolver = SlidingSolverService.getInstance(getContext());
+        }
+        return slidingSolver;
+    }
+
+    private void requestSlidingPlan() {
+        SlidingSolverService solver = getSlidingSolver();
+        if (!solver.isSupported(gridSize)) return;
+
+        planPending = true;
+        pendingSlideCount = 0;
+        solver.solve(gridSize, board.copyPermutation(), new SlidingSolverService.Callback() {
+            @Override
+            public void onSolved(int[] moves) {
+                planPending = false;
+                if (moves == null) return;
+                slidingPlan = new SlidingPlan(moves);
+                for (int i = 0; i < pendingSlideCount; i += 2) {
+                    slidingPlan.onSlide(pendingSlides[i], pendingSlides[i + 1]);
+                }
+                pendingSlideCount = 0;
+                if (autoSolveRequested) {
+                    autoSolveRequested = false;
+                    autoSolving = true;
+                    post(autoSolveStep);
+                }
             }
+
+            @Override
+            public void onFailed(IOException error) {
+                planPending = false;
+                pendingSlideCount = 0;
+                autoSolveRequested = false;
+                if (listener != null) {
+                    listener.onSolverFailed();
+                }
+            }
+        });
+    }
+
+    private int gapCell() {
+        return board.getCellOf(SlidingPuzzle.blankTile(gridSize));
+    }
+
+    private void slide(int cell, int gap) {
+        clearHintFlags();
+        if (slidingPlan != null) {
+            slidingPlan.onSlide(cell, gap);
+        } else if (planPending) {
+            if (pendingSlideCount + 2 > pendingSlides.length) {
+                pendingSlides = Arrays.copyOf(pendingSlides, pendingSlides.length * 2);
+            }
+            pendingSlides[pendingSlideCount++] = cell;
+            pendingSlides[pendingSlideCount++] = gap;
         }
+        swapAnimated(cell, gap);
+        invalidateDamage();
+    }
+
+    private void clearHintFlags() {
+        if (hintedIndex >= 0 && hintedIndex < flags.length) {
+            flags[hintedIndex] &= ~FLAG_HINTED;
+            markCellDirty(hintedIndex);
+        }
+        if (hintedPartner >= 0 && hintedPartner < flags.length) {
+            flags[hintedPartner] &= ~FLAG_HINTED;
+            markCellDirty(hintedPartner);
+        }
+        hintedIndex = -1;
+        hintedPartner = -1;
     }
 
     private void createPuzzle() {
         if (originalImage == null) return;
 
-        pieces.clear();
-        selectedIndex = -1;
-
         int viewSize = Math.min(getWidth(), getHeight());
         if (viewSize == 0) {
             post(this::createPuzzle);
             return;
         }
 
-        boardSize = viewSize - 40;
-        pieceSize = boardSize / gridSize;
-        boardSize = pieceSize * gridSize;
+        int availableSize = viewSize - 40;
+        PreparedBoard cached = boardCache.get(imageId, requestedGridSize, availableSize);
+        if (cached != null) {
+            boardBuilder.cancel();
+            applyBoard(cached);
+            return;
+        }
+
+        // The current board stays on screen until the latest request is built.
+        int requestImageId = imageId;
+        boardBuilder.request(originalImage, requestedGridSize, availableSize, prepared -> {
+            boardCache.put(requestImageId, availableSize, prepared);
+            applyBoard(prepared);
+        });
+    }
+
+    private void applyBoard(PreparedBoard prepared) {
+        removeCallbacks(clearHint);
+        selectedIndex = -1;
+        hintedIndex = -1;
+        hintedPartner = -1;
+        clearMotions();
+
+        // One scaled atlas for the whole board; cells only reference a tile in it.
+        boardImage = prepared.getImage();
+        geometry = prepared.getGeometry();
+        gridSize = prepared.getGridSize();
+        pieceSize = prepared.getPieceSize();
+        boardSize = prepared.getBoardSize();
 
         offsetX = (getWidth() - boardSize) / 2;
         offsetY = (getHeight() - boardSize) / 2;
+        stopFling();
+        // Zooms in until a piece is about half the board across.
+        viewport.setContent(getWidth(), getHeight(), offsetX, offsetY, boardSize,
+            Math.max(MIN_MAX_ZOOM, gridSize / 2f));
+        if (regionTiles != null) {
+            regionTiles.setGridSize(gridSize);
+        }
 
-        Bitmap scaledImage = Utils.scaleBitmap(originalImage, boardSize);
-        this.originalImage = scaledImage;
-
-        for (int i = 0; i < gridSize * gridSize; i++) {
-            int row = i / gridSize;
-            int col = i % gridSize;
+        if (board != null) {
+            board.setListener(null);
+        }
+        board = new Board(gridSize);
+        board.setListener(this);
+        flags = new byte[board.getCellCount()];
+        buildGridLines();
+        buildJigsawShapes();
+        rowsPerBand = Math.max(1, BAND_CELLS / gridSize);
+        resetNodes();
+
+        GameSnapshot restore = pendingRestore;
+        pendingRestore = null;
+        if (restore != null && restore.getGridSize() == gridSize) {
+            deal(restore.getSeed(), restore.getPermutation());
+        } else {
+            shuffle();
+        }
 
-            Bitmap pieceBitmap = Bitmap.createBitmap(
-                scaledImage,
-                col * pieceSize,
-                row * pieceSize,
-                pieceSize,
-                pieceSize
-            );
+        if (listener != null) {
+            listener.onPuzzleReady();
+        }
+    }
 
-            PuzzlePiece piece = new PuzzlePiece(pieceBitmap, i);
-            piece.setCurrentIndex(i);
+    private void buildJigsawShapes() {
+        // The same cut for a grid size every time, so a resumed game looks the same.
+        jigsawShapes = jigsawMode && boardImage != null
+            ? new JigsawShapes(new JigsawEdges(gridSize, gridSize), boardImage, geometry)
+            : null;
+    }
 
-            float left = offsetX + col * pieceSize;
-            float top = offsetY + row * pieceSize;
-            piece.setBounds(left, top, left + pieceSize, top + pieceSize);
+    /** The jigsaw cut in effect: sliding mode always uses squares. */
+    private JigsawShapes activeJigsaw() {
+        return slidingMode ? null : jigsawShapes;
+    }
 
-            pieces.add(piece);
+    private void buildGridLines() {
+        // All borders as one drawLines batch instead of a drawRect per cell.
+        gridLines = new float[(gridSize + 1) * 2 * 4];
+        int p = 0;
+        for (int i = 0; i <= gridSize; i++) {
+            float pos = i * pieceSize;
+            gridLines[p++] = offsetX + pos;
+            gridLines[p++] = offsetY;
+            gridLines[p++] = offsetX + pos;
+            gridLines[p++] = offsetY + boardSize;
+            gridLines[p++] = offsetX;
+            gridLines[p++] = offsetY + pos;
+            gridLines[p++] = offsetX + boardSize;
+            gridLines[p++] = offsetY + pos;
         }
-
-        shuffle();
     }
 
-    private void checkCorrectPieces() {
-        int correctCount = 0;
+    public int getCorrectCount() {
+        return board != null ? board.getCorrectCount() : 0;
+    }
 
-        for (int i = 0; i < pieces.size(); i++) {
-            PuzzlePiece piece = pieces.get(i);
-            boolean isCorrect = piece.getOriginalIndex() == i;
-            piece.setCorrect(isCorrect);
-            if (isCorrect) correctCount++;
+    @Override
+    public void onCellsSwapped(int cell1, int cell2, int correctCount) {
+        updateCorrectFlag(cell1);
+        updateCorrectFlag(cell2);
+        markCellDirty(cell1);
+        markCellDirty(cell2);
+        if (listener != null) {
+            listener.onPieceSwapped(0, correctCount);
         }
+    }
 
+    @Override
+    public void onBoardReset(int correctCount) {
+        for (int i = 0; i < flags.length; i++) {
+            flags[i] = board.isCorrect(i) ? (byte) FLAG_CORRECT : 0;
+        }
+        invalidateBoard();
         if (listener != null) {
             listener.onPieceSwapped(0, correctCount);
+        }
+    }
 
-            if (correctCount == pieces.size()) {
-                listener.onPuzzleComplete();
-            }
+    @Override
+    public void onSolved() {
+        stopAutoSolve();
+        if (listener != null) {
+            listener.onPuzzleComplete();
         }
     }
 
-    public int getCorrectCount() {
-        int count = 0;
-        for (int i = 0; i < pieces.size(); i++) {
-            if (pieces.get(i).getOriginalIndex() == i) count++;
+    private void updateCorrectFlag(int cell) {
+        if (board.isCorrect(cell)) {
+            flags[cell] |= FLAG_CORRECT;
+        } else {
+            flags[cell] &= ~FLAG_CORRECT;
         }
-        return count;
     }
 
     @Override
     protected void onDraw(Canvas canvas) {
         super.onDraw(canvas);
 
-        if (pieces.isEmpty()) return;
+        if (board == null) return;
+        long start = Metrics.begin(Metrics.DRAW);
 
-        for (int i = 0; i < pieces.size(); i++) {
-            PuzzlePiece piece = pieces.get(i);
-            RectF bounds = piece.getBounds();
+        int saveCount = canvas.save();
+        canvas.translate(viewport.getTranslateX(), viewport.getTranslateY());
+        canvas.scale(viewport.getScale(), viewport.getScale());
 
-            int row = i / gridSize;
-            int col = i % gridSize;
-            float left = offsetX + col * pieceSize;
-            float top = offsetY + row * pieceSize;
+        boolean useNodes = Build.VERSION.SDK_INT >= Build.VERSION_CODES.Q
+            && canvas.isHardwareAccelerated();
+        int detailSampleSize = detailSampleSize();
+        if (useNodes && detailSampleSize == 0) {
+            if (pieceNodes == null) {
+                pieceNodes = new PieceNodes();
+                resetNodes();
+            }
+            recordBoard();
+            pieceNodes.drawBoard(canvas);
+        } else {
+            // Only the cells inside the damaged (or, zoomed, the visible) area are drawn.
+            canvas.getClipBounds(clipBounds);
+            // Tabs of cells just outside the clip can reach into it.
+            int reach = activeJigsaw() != null ? activeJigsaw().getMargin() : 0;
+            clipBounds.inset(-reach, -reach);
+            if (clipBounds.intersects(offsetX, offsetY, offsetX + boardSize, offsetY + boardSize)) {
+                int firstCol = geometry.indexAt(clipBounds.left - offsetX);
+                int lastCol = geometry.indexAt(clipBounds.right - 1 - offsetX);
+                int firstRow = geometry.indexAt(clipBounds.top - offsetY);
+                int lastRow = geometry.indexAt(clipBounds.bottom - 1 - offsetY);
+                if (detailSampleSize > 0) {
+                    regionTiles.beginFrame();
+                }
+                drawCells(canvas, firstRow, lastRow, firstCol, lastCol, detailSampleSize);
+            }
+            drawBorders(canvas);
+        }
+        drawMovingTiles(canvas, useNodes);
 
-            canvas.drawBitmap(piece.getBitmap(), left, top, null);
-            canvas.drawRect(left, top, left + pieceSize, top + pieceSize, borderPaint);
+        canvas.restoreToCount(saveCount);
+        Metrics.end(Metrics.DRAW, start);
+    }
 
-            if (piece.isSelected()) {
-                canvas.drawRect(left + 3, top + 3, left + pieceSize - 3, top + pieceSize - 3, selectedPaint);
-            } else if (piece.isHinted()) {
-                canvas.drawRect(left + 3, top + 3, left + pieceSize - 3, top + pieceSize - 3, hintPaint);
-            } else if (piece.isCorrect()) {
-                canvas.drawRect(left + 2, top + 2, left + pieceSize - 2, top + pieceSize - 2, correctPaint);
-                canvas.drawText("✓", left + pieceSize - 15, top + 20, checkPaint);
-            }
+    /** Re-records the bands with changed cells; motion frames just re-issue them. */
+    @RequiresApi(Build.VERSION_CODES.Q)
+    private void recordBoard() {
+        int width = getWidth();
+        int height = getHeight();
+        for (int band = 0; band < pieceNodes.getBandCount(); band++) {
+            if (!pieceNodes.isDirty(band)) continue;
+            int firstRow = band * rowsPerBand;
+            int lastRow = Math.min(gridSize, firstRow + rowsPerBand) - 1;
+            drawCells(pieceNodes.beginBand(band, width, height), firstRow, lastRow, 0, gridSize - 1, 0);
+            pieceNodes.endBand(band);
+        }
+        if (!pieceNodes.hasBorders()) {
+            drawBorders(pieceNodes.beginBorders(width, height));
+            pieceNodes.endBorders();
         }
     }
 
-    @Override
-    public boolean onTouchEvent(MotionEvent event) {
-        if (event.getAction() == MotionEvent.ACTION_DOWN) {
-            float x = event.getX();
-            float y = event.getY();
+    private void drawBorders(Canvas canvas) {
+        // Jigsaw pieces carry their own outlines.
+        if (activeJigsaw() == null) {
+            canvas.drawLines(gridLines, borderPaint);
+        }
+    }
 
-            int touchedIndex = -1;
+    private void resetNodes() {
+        if (Build.VERSION.SDK_INT < Build.VERSION_CODES.Q || pieceNodes == null || board == null) return;
+        int bandCount = (gridSize + rowsPerBand - 1) / rowsPerBand;
+        pieceNodes.reset(pieceSize, board.getCellCount(), bandCount);
+    }
 
-            for (int i = 0; i < pieces.size(); i++) {
-                int row = i / gridSize;
-                int col = i % gridSize;
-                float left = offsetX + col * pieceSize;
-                float top = offsetY + row * pieceSize;
+    /**
+     * Draws the still cells in the given rows and columns, skipping moving
+     * ones. With a {@code detailSampleSize}, pieces come from the source
+     * image once decoded and from the atlas until then.
+     */
+    private void drawCells(Canvas canvas, int firstRow, int lastRow, int firstCol, int lastCol,
+            int detailSampleSize) {
+        boolean decorated = pieceSize >= MIN_DECORATED_PIECE_SIZE;
+        int hiddenTile = hiddenTile();
+        JigsawShapes jigsaw = activeJigsaw();
+
+        for (int row = firstRow; row <= lastRow; row++) {
+            for (int i = row * gridSize + firstCol, end = row * gridSize + lastCol; i <= end; i++) {
+                int cellFlags = flags[i];
+                if ((cellFlags & FLAG_MOVING) != 0) continue;
+
+                float left = offsetX + geometry.cellLeft(i);
+                float top = offsetY + geometry.cellTop(i);
+
+                int source = board.getTileAt(i);
+                if (source == hiddenTile) continue;
+
+                int srcLeft = geometry.cellLeft(source);
+                int srcTop = geometry.cellTop(source);
+                srcRect.set(srcLeft, srcTop, srcLeft + pieceSize, srcTop + pieceSize);
+                dstRect.set(left, top, left + pieceSize, top + pieceSize);
+
+                Bitmap detail = detailSampleSize > 0 ? regionTiles.get(source, detailSampleSize) : null;
+                if (jigsaw != null) {
+                    jigsaw.drawPiece(canvas, source, left, top);
+                    if (decorated) {
+                        jigsaw.drawOutline(canvas, source, left, top, outlinePaint);
+                    }
+                } else if (detail != null) {
+                    canvas.drawBitmap(detail, null, dstRect, detailPaint);
+                } else {
+                    canvas.drawBitmap(boardImage, srcRect, dstRect, null);
+                }
 
-                if (x >= left && x <= left + pieceSize && y >= top && y <= top + pieceSize) {
-                    touchedIndex = i;
-                    break;
+                if ((cellFlags & FLAG_SELECTED) != 0) {
+                    canvas.drawRect(left + 3, top + 3, left + pieceSize - 3, top + pieceSize - 3, selectedPaint);
+                } else if ((cellFlags & FLAG_HINTED) != 0) {
+                    canvas.drawRect(left + 3, top + 3, left + pieceSize - 3, top + pieceSize - 3, hintPaint);
+                } else if (decorated && (cellFlags & FLAG_CORRECT) != 0) {
+                    canvas.drawRect(left + 2, top + 2, left + pieceSize - 2, top + pieceSize - 2, correctPaint);
+                    canvas.drawText("✓", left + pieceSize - 15, top + 20, checkPaint);
                 }
             }
+        }
+    }
 
-            if (touchedIndex >= 0) {
-                handlePieceTouch(touchedIndex);
-            }
+    /** Sample size for pieces decoded from the source, or 0 when the atlas is enough. */
+    private int detailSampleSize() {
+        // Detail pieces are plain squares; a jigsaw cut keeps drawing from the atlas.
+        if (regionTiles == null || activeJigsaw() != null || viewport.getScale() < DETAIL_MIN_ZOOM) return 0;
+        if (regionTiles.getSourcePieceSize() <= pieceSize) return 0;
+        float screenPiece = pieceSize * viewport.getScale();
+        float visibleCells = (getWidth() / screenPiece + 1) * (getHeight() / screenPiece + 1);
+        if (visibleCells > MAX_DETAIL_CELLS) return 0;
+        return regionTiles.sampleSizeFor(screenPiece);
+    }
+
+    private void drawMovingTiles(Canvas canvas, boolean useNodes) {
+        int hiddenTile = hiddenTile();
+        long now = System.nanoTime();
+        for (int i = 0; i < motions.size(); i++) {
+            int cell = motions.cellAt(i);
+            if (cell == dragCell) continue;
+            int tile = board.getTileAt(cell);
+            if (tile == hiddenTile) continue;
+            motions.position(i, geometry.cellLeft(cell), geometry.cellTop(cell), now, motionPoint);
+            drawTile(canvas, tile, motionPoint[0], motionPoint[1], 1f, useNodes);
+        }
+        // The dragged tile is lifted above everything else.
+        if (dragCell >= 0) {
+            drawTile(canvas, board.getTileAt(dragCell), dragX, dragY, DRAG_SCALE, useNodes);
+        }
+    }
+
+    private void drawTile(Canvas canvas, int tile, float x, float y, float scale, boolean useNodes) {
+        float left = offsetX + x;
+        float top = offsetY + y;
+        if (useNodes && Build.VERSION.SDK_INT >= Build.VERSION_CODES.Q) {
+            pieceNodes.drawTile(canvas, tile, left, top, scale, tileDrawer);
+            return;
+        }
+        int saveCount = canvas.save();
+        canvas.translate(left, top);
+        canvas.scale(scale, scale, pieceSize / 2f, pieceSize / 2f);
+        drawTileContent(canvas, tile);
+        canvas.restoreToCount(saveCount);
+    }
+
+    /** Draws {@code tile} with its square's top-left at (0, 0). */
+    private void drawTileContent(Canvas canvas, int tile) {
+        JigsawShapes jigsaw = activeJigsaw();
+        if (jigsaw != null) {
+            jigsaw.drawPiece(canvas, tile, 0, 0);
+            jigsaw.drawOutline(canvas, tile, 0, 0, outlinePaint);
+            return;
+        }
+        int srcLeft = geometry.cellLeft(tile);
+        int srcTop = geometry.cellTop(tile);
+        srcRect.set(srcLeft, srcTop, srcLeft + pieceSize, srcTop + pieceSize);
+        dstRect.set(0, 0, pieceSize, pieceSize);
+        canvas.drawBitmap(boardImage, srcRect, dstRect, null);
+    }
+
+    private int hiddenTile() {
+        // In sliding mode the gap stays empty until the picture is complete.
+        return slidingMode && !board.isSolved() ? SlidingPuzzle.blankTile(gridSize) : -1;
+    }
 
+    @Override
+    public boolean onTouchEvent(MotionEvent event) {
+        scaleDetector.onTouchEvent(event);
+        panDetector.onTouchEvent(event);
+        if (viewport.isZoomed() || scaleDetector.isInProgress() || event.getPointerCount() > 1) {
+            if (dragCell >= 0) {
+                drop(-1);
+            }
+            downCell = -1;
             return true;
         }
+
+        float x = event.getX();
+        float y = event.getY();
+        switch (event.getActionMasked()) {
+            case MotionEvent.ACTION_DOWN:
+                downCell = cellAt(x, y);
+                downX = x;
+                downY = y;
+                if (slidingMode && downCell >= 0) {
+                    handlePieceTouch(downCell);
+                    downCell = -1;
+                }
+                return true;
+            case MotionEvent.ACTION_MOVE:
+                if (dragCell < 0 && downCell >= 0
+                        && Math.abs(x - downX) + Math.abs(y - downY) > touchSlop) {
+                    startDrag(downCell);
+                }
+                if (dragCell >= 0) {
+                    addDamage(dragX, dragY);
+                    dragX += x - downX;
+                    dragY += y - downY;
+                    downX = x;
+                    downY = y;
+                    addDamage(dragX, dragY);
+                    invalidateDamage();
+                }
+                return true;
+            case MotionEvent.ACTION_UP:
+                if (dragCell >= 0) {
+                    drop(cellAt(x, y));
+                } else if (downCell >= 0) {
+                    handlePieceTouch(downCell);
+                }
+                downCell = -1;
+                return true;
+            case MotionEvent.ACTION_CANCEL:
+                if (dragCell >= 0) {
+                    drop(-1);
+                }
+                downCell = -1;
+                return true;
+        }
         return super.onTouchEvent(event);
     }
 
+    private int cellAt(float x, float y) {
+        if (board == null) return -1;
+        return geometry.cellAt(viewport.toLayoutX(x) - offsetX, viewport.toLayoutY(y) - offsetY);
+    }
+
+    private void stopFling() {
+        scroller.forceFinished(true);
+        removeCallbacks(flingFrame);
+    }
+
     private void handlePieceTouch(int index) {
+        if (slidingMode) {
+            int gap = gapCell();
+            if (!autoSolving && SlidingPuzzle.areAdjacent(gridSize, index, gap)) {
+                slide(index, gap);
+            }
+            return;
+        }
+
         if (selectedIndex == -1) {
             selectedIndex = index;
-            pieces.get(index).setSelected(true);
+            flags[index] |= FLAG_SELECTED;
+            markCellDirty(index);
         } else if (selectedIndex == index) {
-            pieces.get(index).setSelected(false);
+            flags[index] &= ~FLAG_SELECTED;
+            markCellDirty(index);
             selectedIndex = -1;
         } else {
+            flags[selectedIndex] &= ~FLAG_SELECTED;
             swapPieces(selectedIndex, index);
-            pieces.get(selectedIndex).setSelected(false);
             selectedIndex = -1;
         }
-        invalidate();
+        invalidateDamage();
     }
 
     private void swapPieces(int index1, int index2) {
-        PuzzlePiece piece1 = pieces.get(index1);
-        PuzzlePiece piece2 = pieces.get(index2);
+        flags[index1] &= ~FLAG_HINTED;
+        flags[index2] &= ~FLAG_HINTED;
+        swapAnimated(index1, index2);
+    }
 
-        Bitmap tempBitmap = piece1.getBitmap();
-        int tempOriginal = piece1.getOriginalIndex();
+    private void startDrag(int cell) {
+        downCell = -1;
+        // A tile still gliding from the last move is not picked up mid-air.
+        if (board == null || slidingMode || (flags[cell] & FLAG_MOVING) != 0) return;
+        if (selectedIndex >= 0) {
+            flags[selectedIndex] &= ~FLAG_SELECTED;
+            markCellDirty(selectedIndex);
+            selectedIndex = -1;
+        }
+        dragCell = cell;
+        dragX = geometry.cellLeft(cell);
+        dragY = geometry.cellTop(cell);
+        flags[cell] |= FLAG_MOVING;
+        markCellDirty(cell);
+        getParent().requestDisallowInterceptTouchEvent(true);
+        invalidateDamage();
+    }
 
-        piece1.setBitmap(piece2.getBitmap());
-        piece1.setOriginalIndex(piece2.getOriginalIndex());
+    /** Swaps with {@code target}, or snaps back when it is -1 or the drag's own cell. */
+    private void drop(int target) {
+        int cell = dragCell;
+        if (target >= 0 && target != cell) {
+            swapPieces(cell, target);
+        } else {
+            startMotion(cell, dragX, dragY);
+        }
+        addDamage(dragX, dragY);
+        dragCell = -1;
+        invalidateDamage();
+    }
+
+    /** Swaps two cells; both tiles glide from where they are drawn now to their new cells. */
+    private void swapAnimated(int cell1, int cell2) {
+        visualPosition(cell1, motionPoint);
+        float x1 = motionPoint[0];
+        float y1 = motionPoint[1];
+        visualPosition(cell2, motionPoint);
+        float x2 = motionPoint[0];
+        float y2 = motionPoint[1];
+        Board swapped = board;
+        board.swap(cell1, cell2);
+        // A completion listener may already have dealt a new board.
+        if (board != swapped) return;
+        startMotion(cell2, x1, y1);
+        startMotion(cell1, x2, y2);
+    }
 
-        piece2.setBitmap(tempBitmap);
-        piece2.setOriginalIndex(tempOriginal);
+    private void visualPosition(int cell, float[] out) {
+        if (cell == dragCell) {
+            out[0] = dragX;
+            out[1] = dragY;
+            return;
+        }
+        int index = motions.indexOf(cell);
+        if (index >= 0) {
+            motions.position(index, geometry.cellLeft(cell), geometry.cellTop(cell), System.nanoTime(), out);
+        } else {
+            out[0] = geometry.cellLeft(cell);
+            out[1] = geometry.cellTop(cell);
+        }
+    }
 
-        piece1.setHinted(false);
-        piece2.setHinted(false);
+    private void startMotion(int cell, float fromX, float fromY) {
+        motions.start(cell, fromX, fromY, System.nanoTime());
+        flags[cell] |= FLAG_MOVING;
+        markCellDirty(cell);
+        scheduleMotionFrame();
+    }
 
-        checkCorrectPieces();
+    private void scheduleMotionFrame() {
+        if (!motionFramePosted) {
+            motionFramePosted = true;
+            postOnAnimation(motionFrame);
+        }
+    }
+
+    private void clearMotions() {
+        motions.clear();
+        dragCell = -1;
+        downCell = -1;
+        removeCallbacks(motionFrame);
+        motionFramePosted = false;
+        for (int i = 0; i < flags.length; i++) {
+            flags[i] &= ~FLAG_MOVING;
+        }
+    }
+
+    /** Records that {@code cell} changed: its area is damaged and its band must be re-recorded. */
+    private void markCellDirty(int cell) {
+        addDamage(geometry.cellLeft(cell), geometry.cellTop(cell));
+        if (Build.VERSION.SDK_INT >= Build.VERSION_CODES.Q && pieceNodes != null) {
+            pieceNodes.markDirty(cell / gridSize / rowsPerBand);
+        }
+    }
+
+    /** Adds a piece-sized area at board-local ({@code x}, {@code y}), with room for a lifted tile and borders. */
+    private void addDamage(float x, float y) {
+        JigsawShapes jigsaw = activeJigsaw();
+        int reach = jigsaw != null ? jigsaw.getMargin() : 0;
+        int margin = (int) Math.ceil((pieceSize + 2 * reach) * DRAG_SCALE / 2 - pieceSize / 2f) + 2;
+        int left = offsetX + (int) Math.floor(x) - margin;
+        int top = offsetY + (int) Math.floor(y) - margin;
+        int size = pieceSize + 2 * margin + 1;
+        damage.union(left, top, left + size, top + size);
+    }
+
+    /** Invalidates the area collected by {@link #markCellDirty} and {@link #addDamage}. */
+    @SuppressWarnings("deprecation")
+    private void invalidateDamage() {
+        if (damage.isEmpty()) return;
+        if (viewport.isZoomed()) {
+            // Zoomed frames draw only the visible cells anyway.
+            damage.setEmpty();
+            invalidate();
+            return;
+        }
+        // Hardware-accelerated windows redraw the whole view; only dirty bands are re-recorded.
+        invalidate(damage);
+        damage.setEmpty();
+    }
+
+    /** Invalidates the whole board after a change to every cell. */
+    private void invalidateBoard() {
+        if (Build.VERSION.SDK_INT >= Build.VERSION_CODES.Q && pieceNodes != null) {
+            pieceNodes.markAllDirty();
+        }
+        damage.setEmpty();
+        invalidate();
     }
 
     @Override
@@ -316,6 +1139,31 @@ public class PuzzleView extends View {
         }
     }
 
+    @Override
+    protected void onAttachedToWindow() {
+        super.onAttachedToWindow();
+        // Piece nodes come back on the next hardware draw.
+        openRegionTiles();
+    }
+
+    @Override
+    protected void onDetachedFromWindow() {
+        super.onDetachedFromWindow();
+        boardBuilder.cancel();
+        removeCallbacks(clearHint);
+        stopAutoSolve();
+        if (slidingSolver != null) {
+            slidingSolver.cancel();
+        }
+        clearMotions();
+        stopFling();
+        if (Build.VERSION.SDK_INT >= Build.VERSION_CODES.Q && pieceNodes != null) {
+            pieceNodes.discard();
+        }
+        pieceNodes = null;
+        releaseRegionTiles();
+    }
+
     private Paint createBorderPaint() {
         Paint paint = new Paint();
         paint.setStyle(Paint.Style.STROKE);
@@ -348,6 +1196,14 @@ public class PuzzleView extends View {
         return paint;
     }
 
+    private Paint createOutlinePaint() {
+        Paint paint = new Paint(Paint.ANTI_ALIAS_FLAG);
+        paint.setStyle(Paint.Style.STROKE);
+        paint.setStrokeWidth(1.5f);
+        paint.setColor(Color.argb(150, 255, 255, 255));
+        return paint;
+    }
+
     private Paint createCheckPaint() {
         Paint paint = new Paint();
         paint.setColor(Color.parseColor("#4ECDC4"));
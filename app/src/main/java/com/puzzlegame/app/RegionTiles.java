@@ -0,0 +1,213 @@
+package com.puzzlegame.app;
+
+import android.content.ContentResolver;
+import android.graphics.Bitmap;
+import android.graphics.BitmapFactory;
+import android.graphics.BitmapRegionDecoder;
+import android.graphics.Rect;
+import android.net.Uri;
+import android.os.Handler;
+import android.os.Looper;
+import android.util.LruCache;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Full-resolution pieces for a zoomed board, cut straight from the source
+ * image with {@link BitmapRegionDecoder} at the sample size the zoom needs.
+ * Pieces are decoded on one background thread and kept in an LRU with a
+ * fixed byte budget; the view asks for every visible piece each frame, so
+ * the pieces that fall out are the ones scrolled or zoomed away. Requests
+ * not repeated in the latest frame are dropped before they are decoded.
+ *
+ * <p>Everything except the decoding itself runs on the main thread.
+ */
+public class RegionTiles {
+
+    public interface Listener {
+        void onTilesChanged();
+    }
+
+    public static final int BUDGET_BYTES = 32 * 1024 * 1024;
+
+    private final ContentResolver resolver;
+    private final Uri uri;
+    private final Listener listener;
+    private final Handler mainHandler = new Handler(Looper.getMainLooper());
+    private final ExecutorService executor = new ThreadPoolExecutor(
+        0, 1, 10, TimeUnit.SECONDS, new LinkedBlockingQueue<>());
+    private final LruCache<Long, Bitmap> cache = new LruCache<Long, Bitmap>(BUDGET_BYTES) {
+        @Override
+        protected int sizeOf(Long key, Bitmap bitmap) {
+            return bitmap.getByteCount();
+        }
+    };
+    // Key -> the frame it was last asked for in; read by the worker to skip stale work.
+    private final ConcurrentHashMap<Long, Integer> pending = new ConcurrentHashMap<>();
+    private final AtomicInteger frame = new AtomicInteger();
+    private final AtomicInteger generation = new AtomicInteger();
+    private volatile int gridSize;
+
+    // Worker thread only.
+    private BitmapRegionDecoder decoder;
+    private final Rect region = new Rect();
+    // Side of the centred square the board was cut from, 0 until opened, -1 if unsupported.
+    private volatile int sourceSize;
+    private int sourceLeft, sourceTop;
+
+    public RegionTiles(ContentResolver resolver, Uri uri, Listener listener) {
+        this.resolver = resolver;
+        this.uri = uri;
+        this.listener = listener;
+        open();
+    }
+
+    /** Piece regions depend on the grid, so a new grid drops every cached piece. */
+    public void setGridSize(int gridSize) {
+        if (this.gridSize == gridSize) return;
+        this.gridSize = gridSize;
+        generation.incrementAndGet();
+        pending.clear();
+        cache.evictAll();
+    }
+
+    /** Side of one piece in source pixels, or 0 while the source is not open. */
+    public float getSourcePieceSize() {
+        int size = sourceSize;
+        return size > 0 && gridSize > 0 ? size / (float) gridSize : 0;
+    }
+
+    /**
+     * Sample size whose pieces are at least three quarters of
+     * {@code screenPieceSize} pixels, or 0 while the source is not open.
+     */
+    public int sampleSizeFor(float screenPieceSize) {
+        float sourcePiece = getSourcePieceSize();
+        if (sourcePiece == 0) return 0;
+        int sampleSize = 1;
+        while (sourcePiece / (sampleSize * 2) >= screenPieceSize * 0.75f) {
+            sampleSize *= 2;
+        }
+        return sampleSize;
+    }
+
+    /** Starts a frame; pieces not requested again by the next one are skipped. */
+    public void beginFrame() {
+        frame.incrementAndGet();
+    }
+
+    /** Returns the decoded piece, or null after queueing it (once) for decoding. */
+    public Bitmap get(int piece, int sampleSize) {
+        long key = key(piece, sampleSize);
+        Bitmap bitmap = cache.get(key);
+        if (bitmap != null) return bitmap;
+        Integer previous = pending.put(key, frame.get());
+        if (previous == null) {
+            int requestGeneration = generation.get();
+            executor.execute(() -> decode(key, requestGeneration));
+        }
+        return null;
+    }
+
+    public int sizeBytes() {
+        return cache.size();
+    }
+
+    /** Drops every piece and closes the decoder; later requests reopen it. */
+    public void release() {
+        generation.incrementAndGet();
+        pending.clear();
+        cache.evictAll();
+        executor.execute(() -> {
+            if (decoder != null) {
+                decoder.recycle();
+                decoder = null;
+            }
+        });
+    }
+
+    private void open() {
+        executor.execute(() -> {
+            if (openDecoder()) {
+                mainHandler.post(listener::onTilesChanged);
+            }
+        });
+    }
+
+    private boolean openDecoder() {
+        if (decoder != null) return true;
+        if (sourceSize < 0) return false;
+        try (InputStream in = resolver.openInputStream(uri)) {
+            decoder = BitmapRegionDecoder.newInstance(in, false);
+        } catch (IOException | RuntimeException e) {
+            // No region support (or the file is gone): the board atlas is all there is.
+            sourceSize = -1;
+            return false;
+        }
+        // The same centred square ImageLoader cut the board image from.
+        int width = decoder.getWidth();
+        int height = decoder.getHeight();
+        int size = Math.min(width, height);
+        sourceLeft = (width - size) / 2;
+        sourceTop = (height - size) / 2;
+        sourceSize = size;
+        return true;
+    }
+
+    private void decode(long key, int requestGeneration) {
+        Integer requested = pending.get(key);
+        if (requested == null || generation.get() != requestGeneration
+                || frame.get() - requested > 1 || !openDecoder()) {
+            pending.remove(key);
+            return;
+        }
+
+        int piece = (int) key;
+        int sampleSize = (int) (key >>> 32);
+        int grid = gridSize;
+        int row = piece / grid;
+        int col = piece % grid;
+        region.set(
+            sourceLeft + (int) ((long) col * sourceSize / grid),
+            sourceTop + (int) ((long) row * sourceSize / grid),
+            sourceLeft + (int) ((long) (col + 1) * sourceSize / grid),
+            sourceTop + (int) ((long) (row + 1) * sourceSize / grid));
+
+        BitmapFactory.Options options = new BitmapFactory.Options();
+        options.inSampleSize = sampleSize;
+        options.inPreferredConfig = Bitmap.Config.ARGB_8888;
+
+        long start = Metrics.begin(Metrics.REGION_DECODE);
+        Bitmap bitmap;
+        try {
+            bitmap = decoder.decodeRegion(region, options);
+        } catch (RuntimeException e) {
+            bitmap = null;
+        } finally {
+            Metrics.end(Metrics.REGION_DECODE, start);
+        }
+
+        Bitmap decoded = bitmap;
+        mainHandler.post(() -> {
+            pending.remove(key);
+            if (decoded == null) return;
+            if (generation.get() != requestGeneration) {
+                decoded.recycle();
+                return;
+            }
+            cache.put(key, decoded);
+            listener.onTilesChanged();
+        });
+    }
+
+    private static long key(int piece, int sampleSize) {
+        return (long) sampleSize << 32 | piece;
+    }
+}
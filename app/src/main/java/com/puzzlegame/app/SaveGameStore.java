@@ -0,0 +1,127 @@
+package com.puzzlegame.app;
+
+import android.content.Context;
+import android.graphics.Bitmap;
+import android.util.Log;
+
+import com.puzzlegame.core.GameSnapshot;
+
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Keeps the game in progress across process death: a {@link GameSnapshot}
+ * plus the pre-scaled board image as raw pixels. Restoring maps the pixel
+ * file straight into a bitmap, so the gallery image is never decoded again.
+ */
+public class SaveGameStore {
+    private static final String TAG = "SaveGameStore";
+    private static final int IMAGE_MAGIC = 0x505A494D; // "PZIM"
+    private static final int IMAGE_HEADER_BYTES = 4 + 8 + 4 * 3;
+
+    private final File snapshotFile;
+    private final File imageFile;
+    private final ExecutorService executor = new ThreadPoolExecutor(
+        0, 1, 10, TimeUnit.SECONDS, new LinkedBlockingQueue<>());
+
+    public SaveGameStore(Context context) {
+        File dir = new File(context.getFilesDir(), "savegame");
+        dir.mkdirs();
+        snapshotFile = new File(dir, "game.bin");
+        imageFile = new File(dir, "board.img");
+    }
+
+    /** Stores {@code image} under {@code stamp} on a background thread. */
+    public void saveImage(Bitmap image, long stamp) {
+        executor.execute(() -> {
+            try {
+                writeImage(image, stamp);
+            } catch (IOException e) {
+                // Without the image the snapshot is simply not restored.
+                Log.w(TAG, "Could not save the board image", e);
+            }
+        });
+    }
+
+    /**
+     * Small and unsynced, so cheap enough to write from onPause; staying
+     * synchronous means a recreated activity always reads this save back.
+     */
+    public void save(GameSnapshot snapshot) {
+        try {
+            snapshot.write(snapshotFile);
+        } catch (IOException e) {
+            Log.w(TAG, "Could not save the game", e);
+        }
+    }
+
+    public GameSnapshot loadSnapshot() {
+        return GameSnapshot.read(snapshotFile);
+    }
+
+    /**
+     * Returns the stored image if it is the one stamped {@code stamp}, otherwise
+     * null. Maps and copies the whole file, so call it off the main thread, as
+     * {@link ImageLoader#loadSaved} does.
+     */
+    public Bitmap loadImage(long stamp) throws IOException {
+        if (!imageFile.isFile()) return null;
+        try (FileInputStream in = new FileInputStream(imageFile)) {
+            FileChannel channel = in.getChannel();
+            MappedByteBuffer map = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+            if (map.remaining() < IMAGE_HEADER_BYTES || map.getInt() != IMAGE_MAGIC || map.getLong() != stamp) {
+                return null;
+            }
+            int width = map.getInt();
+            int height = map.getInt();
+            Bitmap.Config config = map.getInt() == 1 ? Bitmap.Config.RGB_565 : Bitmap.Config.ARGB_8888;
+            if (width <= 0 || height <= 0) return null;
+
+            Bitmap bitmap = Bitmap.createBitmap(width, height, config);
+            if (map.remaining() < bitmap.getByteCount()) {
+                bitmap.recycle();
+                return null;
+            }
+            bitmap.copyPixelsFromBuffer(map);
+            return bitmap;
+        }
+    }
+
+    public void clear() {
+        snapshotFile.delete();
+    }
+
+    private void writeImage(Bitmap image, long stamp) throws IOException {
+        if (image.getConfig() != Bitmap.Config.ARGB_8888 && image.getConfig() != Bitmap.Config.RGB_565) {
+            image = image.copy(Bitmap.Config.ARGB_8888, false);
+        }
+        ByteBuffer buffer = ByteBuffer.allocateDirect(IMAGE_HEADER_BYTES + image.getByteCount());
+        buffer.putInt(IMAGE_MAGIC);
+        buffer.putLong(stamp);
+        buffer.putInt(image.getWidth());
+        buffer.putInt(image.getHeight());
+        buffer.putInt(image.getConfig() == Bitmap.Config.RGB_565 ? 1 : 0);
+        image.copyPixelsToBuffer(buffer);
+        buffer.flip();
+
+        File tmp = new File(imageFile.getPath() + ".tmp");
+        try (FileOutputStream out = new FileOutputStream(tmp)) {
+            FileChannel channel = out.getChannel();
+            while (buffer.hasRemaining()) {
+                channel.write(buffer);
+            }
+        }
+        if (!tmp.renameTo(imageFile)) {
+            throw new IOException("Could not move " + tmp + " to " + imageFile);
+        }
+    }
+}
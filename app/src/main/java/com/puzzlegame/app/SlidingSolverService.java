@@ -0,0 +1,102 @@
+package com.puzzlegame.app;
+
+import android.content.Context;
+import android.os.Handler;
+import android.os.Looper;
+import android.util.Log;
+
+import com.puzzlegame.core.SlidingSolver;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Runs the sliding-tile solver off the main thread. Pattern databases are
+ * built on first use, stored in the cache directory and memory-mapped from
+ * then on. Only the latest request is delivered.
+ */
+public class SlidingSolverService {
+
+    private static final String TAG = "SlidingSolverService";
+
+    // Caps a single solve; random 4x4 layouts need far fewer nodes on average.
+    private static final long NODE_BUDGET = 50_000_000L;
+
+    public interface Callback {
+        /** {@code moves} is null if the layout was unsupported or too hard for the budget. */
+        void onSolved(int[] moves);
+
+        /** The pattern database for the grid could not be built or mapped. */
+        void onFailed(IOException error);
+    }
+
+    private static SlidingSolverService instance;
+
+    private final File cacheDir;
+    private final Handler mainHandler = new Handler(Looper.getMainLooper());
+    private final ExecutorService executor = new ThreadPoolExecutor(
+        0, 1, 30, TimeUnit.SECONDS, new LinkedBlockingQueue<>());
+    private final AtomicInteger version = new AtomicInteger();
+    // Touched only on the worker thread.
+    private final SlidingSolver[] solvers = new SlidingSolver[5];
+
+    public static synchronized SlidingSolverService getInstance(Context context) {
+        if (instance == null) {
+            instance = new SlidingSolverService(new File(context.getCacheDir(), "sliding"));
+        }
+        return instance;
+    }
+
+    private SlidingSolverService(File cacheDir) {
+        this.cacheDir = cacheDir;
+    }
+
+    public boolean isSupported(int gridSize) {
+        return SlidingSolver.isSupported(gridSize);
+    }
+
+    public void solve(int gridSize, int[] layout, Callback callback) {
+        int requestVersion = version.incrementAndGet();
+        int[] snapshot = layout.clone();
+
+        executor.execute(() -> {
+            if (version.get() != requestVersion) return;
+            SlidingSolver solver;
+            try {
+                solver = solverFor(gridSize);
+            } catch (IOException e) {
+                Log.w(TAG, "Pattern database for " + gridSize + "x" + gridSize + " unavailable", e);
+                mainHandler.post(() -> {
+                    if (version.get() == requestVersion) {
+                        callback.onFailed(e);
+                    }
+                });
+                return;
+            }
+            int[] moves = solver != null ? solver.solve(snapshot, NODE_BUDGET) : null;
+            mainHandler.post(() -> {
+                if (version.get() == requestVersion) {
+                    callback.onSolved(moves);
+                }
+            });
+        });
+    }
+
+    public void cancel() {
+        version.incrementAndGet();
+    }
+
+    private SlidingSolver solverFor(int gridSize) throws IOException {
+        if (!SlidingSolver.isSupported(gridSize) || gridSize >= solvers.length) return null;
+        if (solvers[gridSize] == null) {
+            if (!cacheDir.isDirectory() && !cacheDir.mkdirs()) return null;
+            solvers[gridSize] = SlidingSolver.load(gridSize, cacheDir);
+        }
+        return solvers[gridSize];
+    }
+}
@@ -0,0 +1,88 @@
+package com.puzzlegame.app;
+
+import java.util.Arrays;
+
+/**
+ * Tiles gliding into their cells after a swap, slide or drop. An entry is
+ * keyed by the cell the tile now occupies and eases from the point the tile
+ * was last drawn at to that cell's origin. Positions are board coordinates.
+ */
+final class TileMotions {
+
+    static final long DURATION_NANOS = 140_000_000L;
+
+    private int[] cells = new int[8];
+    private float[] fromX = new float[8];
+    private float[] fromY = new float[8];
+    private long[] startNanos = new long[8];
+    private int count;
+
+    int size() {
+        return count;
+    }
+
+    int cellAt(int index) {
+        return cells[index];
+    }
+
+    float fromX(int index) {
+        return fromX[index];
+    }
+
+    float fromY(int index) {
+        return fromY[index];
+    }
+
+    int indexOf(int cell) {
+        for (int i = 0; i < count; i++) {
+            if (cells[i] == cell) return i;
+        }
+        return -1;
+    }
+
+    /** Starts (or restarts) the glide into {@code cell}. */
+    void start(int cell, float x, float y, long nowNanos) {
+        int i = indexOf(cell);
+        if (i < 0) {
+            if (count == cells.length) {
+                int capacity = count * 2;
+                cells = Arrays.copyOf(cells, capacity);
+                fromX = Arrays.copyOf(fromX, capacity);
+                fromY = Arrays.copyOf(fromY, capacity);
+                startNanos = Arrays.copyOf(startNanos, capacity);
+            }
+            i = count++;
+        }
+        cells[i] = cell;
+        fromX[i] = x;
+        fromY[i] = y;
+        startNanos[i] = nowNanos;
+    }
+
+    /** Writes the position of entry {@code index} heading to ({@code toX}, {@code toY}) into {@code out}. */
+    void position(int index, float toX, float toY, long nowNanos, float[] out) {
+        float t = Math.min(1f, (nowNanos - startNanos[index]) / (float) DURATION_NANOS);
+        // Ease out: fast pick-up, gentle landing.
+        float u = 1 - t;
+        float eased = 1 - u * u * u;
+        out[0] = fromX[index] + (toX - fromX[index]) * eased;
+        out[1] = fromY[index] + (toY - fromY[index]) * eased;
+    }
+
+    boolean isFinished(int index, long nowNanos) {
+        return nowNanos - startNanos[index] >= DURATION_NANOS;
+    }
+
+    /** Swap-removes entry {@code index}; the last entry takes its place. */
+    void remove(int index) {
+        int last = --count;
+        cells[index] = cells[last];
+        fromX[index] = fromX[last];
+        fromY[index] = fromY[last];
+        startNanos[index] = startNanos[last];
+    }
+
+    void clear() {
+        count = 0;
+    }
+}
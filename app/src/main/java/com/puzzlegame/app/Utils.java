@@ -11,12 +11,27 @@ public class Utils {
     public static Bitmap cropToSquare(Bitmap bitmap) {
         int width = bitmap.getWidth();
         int height = bitmap.getHeight();
+        if (width == height) return bitmap;
         int size = Math.min(width, height);
         int x = (width - size) / 2;
         int y = (height - size) / 2;
         return Bitmap.createBitmap(bitmap, x, y, size, size);
     }
 
+    /** Cheap fingerprint of an image from a 16×16 grid of sampled pixels. */
+    public static long imageHash(Bitmap bitmap) {
+        long hash = 0xcbf29ce484222325L;
+        int width = bitmap.getWidth();
+        int height = bitmap.getHeight();
+        for (int y = 0; y < 16; y++) {
+            for (int x = 0; x < 16; x++) {
+                int pixel = bitmap.getPixel(x * (width - 1) / 15, y * (height - 1) / 15);
+                hash = (hash ^ pixel) * 0x100000001b3L;
+            }
+        }
+        return hash;
+    }
+
     public static Bitmap scaleBitmap(Bitmap bitmap, int targetSize) {
         return Bitmap.createScaledBitmap(bitmap, targetSize, targetSize, true);
     }
@@ -29,13 +44,4 @@ public class Utils {
         context.getResources().updateConfiguration(config,
             context.getResources().getDisplayMetrics());
     }
-
-    public static void shuffleArray(int[] array) {
-        for (int i = array.length - 1; i > 0; i--) {
-            int j = (int) (Math.random() * (i + 1));
-            int temp = array[i];
-            array[i] = array[j];
-            array[j] = temp;
-        }
-    }
 }
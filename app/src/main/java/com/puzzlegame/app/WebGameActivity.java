@@ -1,46 +1,83 @@
 package com.puzzlegame.app;
 
-import android.annotation.SuppressLint;
+import android.graphics.Bitmap;
+import android.net.Uri;
 import android.os.Bundle;
+import android.os.Process;
+import android.os.SystemClock;
+import android.util.Log;
 import android.view.View;
+import android.view.ViewGroup;
 import android.webkit.WebChromeClient;
-import android.webkit.WebSettings;
 import android.webkit.WebView;
-import android.webkit.WebViewClient;
+import android.widget.Toast;
 
 import androidx.activity.OnBackPressedCallback;
+import androidx.activity.result.ActivityResultLauncher;
+import androidx.activity.result.contract.ActivityResultContracts;
 import androidx.appcompat.app.AppCompatActivity;
 
 public class WebGameActivity extends AppCompatActivity {
 
+    private static final String TAG = "WebGameActivity";
+
+    // Only the process's first game window counts from the process start.
+    private static boolean coldStartReported;
+
     private WebView webView;
+    private View progressBar;
+    private ImageLoader imageLoader;
+    private long createdNanos;
+    private boolean pooled;
+    private boolean firstFrameReported;
+
+    private final ActivityResultLauncher<String> imagePicker = registerForActivityResult(
+        new ActivityResultContracts.GetContent(),
+        uri -> {
+            if (uri != null) {
+                loadImage(uri);
+            }
+        }
+    );
 
-    @SuppressLint("SetJavaScriptEnabled")
     @Override
     protected void onCreate(Bundle savedInstanceState) {
+        createdNanos = System.nanoTime();
         super.onCreate(savedInstanceState);
         setContentView(R.layout.activity_web_game);
 
-        webView = findViewById(R.id.gameWebView);
-        View progressBar = findViewById(R.id.progressBar);
+        progressBar = findViewById(R.id.progressBar);
+        pooled = WebViewPool.hasSpare();
+        webView = WebViewPool.obtain(this);
+        ((ViewGroup) findViewById(R.id.gameContainer)).addView(webView, 0, new ViewGroup.LayoutParams(
+            ViewGroup.LayoutParams.MATCH_PARENT, ViewGroup.LayoutParams.MATCH_PARENT));
 
-        WebSettings settings = webView.getSettings();
-        settings.setJavaScriptEnabled(true);
-        settings.setDomStorageEnabled(true);
-        settings.setAllowFileAccess(true);
-        settings.setAllowContentAccess(true);
+        imageLoader = new ImageLoader(getContentResolver());
+        NativeImageBridge.setPicker(() -> imagePicker.launch("image/*"));
 
-        webView.setWebViewClient(new WebViewClient());
+        webView.setWebViewClient(new GameWebViewClient() {
+            @Override
+            public void onPageCommitVisible(WebView view, String url) {
+                reportFirstFrame();
+            }
+        });
         webView.setWebChromeClient(new WebChromeClient() {
             @Override
             public void onProgressChanged(WebView view, int newProgress) {
-                if (progressBar != null) {
-                    progressBar.setVisibility(newProgress == 100 ? View.GONE : View.VISIBLE);
-                }
+                progressBar.setVisibility(newProgress == 100 ? View.GONE : View.VISIBLE);
             }
         });
-
-        webView.loadUrl("file:///android_asset/index.html");
+        // A spare view may have finished loading before it got here.
+        if (webView.getProgress() == 100) {
+            webView.postVisualStateCallback(0, new WebView.VisualStateCallback() {
+                @Override
+                public void onComplete(long requestId) {
+                    reportFirstFrame();
+                }
+            });
+        } else {
+            progressBar.setVisibility(View.VISIBLE);
+        }
 
         getOnBackPressedDispatcher().addCallback(this, new OnBackPressedCallback(true) {
             @Override
@@ -55,10 +92,75 @@ public class WebGameActivity extends AppCompatActivity {
         });
     }
 
+    // The page gets a short WebImageServer handle, never the image data itself.
+    // Only the photo puzzle (puzzle.html) defines onNativeImage; the player may have left it meanwhile.
+    private void loadImage(Uri uri) {
+        int targetSize = Math.min(getResources().getDisplayMetrics().widthPixels,
+            getResources().getDisplayMetrics().heightPixels);
+
+        progressBar.setVisibility(View.VISIBLE);
+        imageLoader.load(uri, targetSize, new ImageLoader.Callback() {
+            @Override
+            public void onProgress(int percent) {
+            }
+
+            @Override
+            public void onImageLoaded(Bitmap bitmap) {
+                progressBar.setVisibility(View.GONE);
+                String handle = WebImageServer.getInstance().register(bitmap);
+                webView.evaluateJavascript(
+                    "window.onNativeImage && onNativeImage('" + handle + "')", null);
+            }
+
+            @Override
+            public void onImageFailed() {
+                progressBar.setVisibility(View.GONE);
+                Toast.makeText(WebGameActivity.this, R.string.upload_first, Toast.LENGTH_SHORT).show();
+            }
+        });
+    }
+
+    // Time to the game's first drawn frame, from onCreate and, on a cold start, from the process start.
+    private void reportFirstFrame() {
+        if (firstFrameReported || isDestroyed()) return;
+        firstFrameReported = true;
+        long nanos = System.nanoTime() - createdNanos;
+        Metrics.recordAlways(Metrics.WEB_FIRST_FRAME, nanos);
+        StringBuilder message = new StringBuilder("First frame ")
+            .append(nanos / 1_000_000).append(" ms after onCreate");
+        if (!coldStartReported) {
+            coldStartReported = true;
+            message.append(", ").append(SystemClock.uptimeMillis() - Process.getStartUptimeMillis())
+                .append(" ms after process start");
+        }
+        Log.i(TAG, message.append(pooled ? " (pooled WebView)" : " (new WebView)").toString());
+        reportFullyDrawn();
+    }
+
+    @Override
+    protected void onResume() {
+        super.onResume();
+        webView.onResume();
+        webView.resumeTimers();
+    }
+
+    @Override
+    protected void onPause() {
+        // Stops the page's setInterval timers (for every WebView in the process) while in the background.
+        webView.onPause();
+        webView.pauseTimers();
+        super.onPause();
+    }
+
     @Override
     protected void onDestroy() {
+        NativeImageBridge.setPicker(null);
+        imageLoader.shutdown();
         if (webView != null) {
-            webView.destroy();
+            webView.setWebViewClient(new GameWebViewClient());
+            webView.setWebChromeClient(null);
+            WebViewPool.release(webView, this, isChangingConfigurations());
+            webView = null;
         }
         super.onDestroy();
     }
@@ -0,0 +1,120 @@
+package com.puzzlegame.app;
+
+import android.graphics.Bitmap;
+import android.net.Uri;
+import android.util.LruCache;
+import android.webkit.WebResourceResponse;
+
+import androidx.webkit.WebViewAssetLoader;
+
+import com.puzzlegame.core.TileGeometry;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.util.Collections;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Serves picked photos to the web photo puzzle ({@code puzzle.html}, linked
+ * from the game page) at short URLs, so a page never keeps
+ * an image as a data URL. A photo is decoded once by {@link ImageLoader}
+ * (square, near screen size) and registered under a handle; the page then
+ * uses {@code BASE_URL + handle + "/" + gridSize} for every piece. That
+ * URL is the photo scaled so each piece is a whole number of pixels,
+ * JPEG-encoded once and kept in a byte-budgeted LRU.
+ *
+ * <p>Requests arrive on WebView's own threads through
+ * {@link WebViewAssetLoader}; everything here is thread-safe.
+ */
+public class WebImageServer implements WebViewAssetLoader.PathHandler {
+
+    public static final String PATH = "/images/";
+    public static final String BASE_URL = "https://" + WebViewAssetLoader.DEFAULT_DOMAIN + PATH;
+
+    private static final int MAX_IMAGES = 2;
+    private static final int ENCODED_BUDGET_BYTES = 8 * 1024 * 1024;
+    private static final int JPEG_QUALITY = 90;
+    // Handles never repeat, even across processes, so a response can be cached for good.
+    private static final Map<String, String> HEADERS =
+        Collections.singletonMap("Cache-Control", "private, max-age=31536000");
+
+    private static WebImageServer instance;
+
+    private final WebViewAssetLoader assetLoader;
+    private final String handlePrefix = Long.toString(System.currentTimeMillis(), 36) + "-";
+    private final AtomicInteger nextHandle = new AtomicInteger();
+    private final LruCache<String, Bitmap> images = new LruCache<>(MAX_IMAGES);
+    private final LruCache<String, byte[]> encoded = new LruCache<String, byte[]>(ENCODED_BUDGET_BYTES) {
+        @Override
+        protected int sizeOf(String key, byte[] bytes) {
+            return bytes.length;
+        }
+    };
+
+    public static synchronized WebImageServer getInstance() {
+        if (instance == null) {
+            instance = new WebImageServer();
+        }
+        return instance;
+    }
+
+    private WebImageServer() {
+        assetLoader = new WebViewAssetLoader.Builder()
+            .addPathHandler(PATH, this)
+            .build();
+    }
+
+    /** Makes {@code image} (square) available to pages; returns its handle. */
+    public String register(Bitmap image) {
+        String handle = handlePrefix + nextHandle.incrementAndGet();
+        images.put(handle, image);
+        return handle;
+    }
+
+    /** Drops the encoded JPEGs; they are encoded again from the kept photos when next asked for. */
+    public void trimMemory() {
+        encoded.evictAll();
+    }
+
+    /** For {@code WebViewClient.shouldInterceptRequest}: null for every URL this server does not own. */
+    public WebResourceResponse intercept(Uri url) {
+        return assetLoader.shouldInterceptRequest(url);
+    }
+
+    /** {@code path} is {@code <handle>/<gridSize>}; unknown handles fall through as not found. */
+    @Override
+    public WebResourceResponse handle(String path) {
+        byte[] bytes = encoded.get(path);
+        if (bytes == null) {
+            bytes = encode(path);
+            if (bytes == null) return null;
+            encoded.put(path, bytes);
+        }
+        return new WebResourceResponse("image/jpeg", null, 200, "OK", HEADERS, new ByteArrayInputStream(bytes));
+    }
+
+    private byte[] encode(String path) {
+        int slash = path.indexOf('/');
+        if (slash < 0) return null;
+        Bitmap image = images.get(path.substring(0, slash));
+        if (image == null) return null;
+        int gridSize;
+        try {
+            gridSize = Integer.parseInt(path.substring(slash + 1));
+        } catch (NumberFormatException e) {
+            return null;
+        }
+        if (gridSize < 1 || gridSize > PuzzleView.MAX_GRID_SIZE) return null;
+
+        // Whole-pixel pieces: the page's percentage offsets then never split a pixel between two pieces.
+        int boardSize = new TileGeometry(gridSize, image.getWidth()).getBoardSize();
+        Bitmap scaled = boardSize == image.getWidth() ? image : Utils.scaleBitmap(image, boardSize);
+        ByteArrayOutputStream out = new ByteArrayOutputStream(boardSize * boardSize / 4);
+        scaled.compress(Bitmap.CompressFormat.JPEG, JPEG_QUALITY, out);
+        if (scaled != image) {
+            scaled.recycle();
+        }
+        return out.toByteArray();
+    }
+}
@@ -0,0 +1,116 @@
+package com.puzzlegame.app;
+
+import android.annotation.SuppressLint;
+import android.app.Activity;
+import android.content.Context;
+import android.content.MutableContextWrapper;
+import android.os.Looper;
+import android.view.ViewGroup;
+import android.webkit.WebSettings;
+import android.webkit.WebView;
+
+/**
+ * Holds at most one WebView with the game page already loading, so
+ * WebGameActivity can show it without paying for Chromium start-up,
+ * WebView construction and the page load on its own onCreate. The spare
+ * view lives on the application context through a
+ * {@link MutableContextWrapper} and is switched to the activity when
+ * adopted, and back when it is parked across a configuration change.
+ *
+ * <p>Main thread only.
+ */
+final class WebViewPool {
+
+    static final String GAME_URL = "file:///android_asset/index.html";
+
+    private static WebView spare;
+    private static boolean warmUpQueued;
+
+    private WebViewPool() {
+    }
+
+    /** Starts the WebView provider and loads the game into a spare view, if there is none yet. */
+    static void warmUp(Context context) {
+        if (spare != null) return;
+        try {
+            spare = create(new MutableContextWrapper(context.getApplicationContext()));
+        } catch (RuntimeException e) {
+            // No WebView provider (being updated, or disabled): the activity will try again itself.
+            spare = null;
+        }
+    }
+
+    /** Same as {@link #warmUp}, once the main thread has nothing else to do. */
+    static void warmUpWhenIdle(Context context) {
+        if (spare != null || warmUpQueued) return;
+        warmUpQueued = true;
+        Context appContext = context.getApplicationContext();
+        Looper.myQueue().addIdleHandler(() -> {
+            warmUpQueued = false;
+            warmUp(appContext);
+            return false;
+        });
+    }
+
+    static boolean hasSpare() {
+        return spare != null;
+    }
+
+    /** Hands out the spare view bound to {@code activity}, or a new one if there is none. */
+    static WebView obtain(Activity activity) {
+        WebView webView = spare;
+        spare = null;
+        if (webView == null) {
+            return create(new MutableContextWrapper(activity));
+        }
+        ((MutableContextWrapper) webView.getContext()).setBaseContext(activity);
+        return webView;
+    }
+
+    /**
+     * Takes {@code webView} back from a destroyed activity. Across a
+     * configuration change the view is kept, page state and all, for the
+     * next activity; otherwise it is destroyed. A fresh spare is loaded once
+     * the main thread is idle only if the activity was not finishing: after
+     * the player leaves the game, a spare would just hold a renderer in a
+     * backgrounded process, and a cold start warms up in PuzzleApplication.
+     */
+    static void release(WebView webView, Activity activity, boolean keep) {
+        ViewGroup parent = (ViewGroup) webView.getParent();
+        if (parent != null) {
+            parent.removeView(webView);
+        }
+        if (keep && spare == null) {
+            ((MutableContextWrapper) webView.getContext()).setBaseContext(activity.getApplicationContext());
+            spare = webView;
+            return;
+        }
+        webView.destroy();
+        if (!activity.isFinishing()) {
+            warmUpWhenIdle(activity);
+        }
+    }
+
+    /** Drops the spare view; called when the system asks for memory back. */
+    static void trim() {
+        if (spare != null) {
+            spare.destroy();
+            spare = null;
+        }
+    }
+
+    @SuppressLint("SetJavaScriptEnabled")
+    private static WebView create(Context context) {
+        WebView webView = new WebView(context);
+        webView.setOverScrollMode(WebView.OVER_SCROLL_NEVER);
+        WebSettings settings = webView.getSettings();
+        settings.setJavaScriptEnabled(true);
+        settings.setDomStorageEnabled(true);
+        settings.setAllowFileAccess(true);
+        settings.setAllowContentAccess(true);
+        webView.setWebViewClient(new GameWebViewClient());
+        webView.addJavascriptInterface(new NativeImageBridge(), NativeImageBridge.NAME);
+        webView.loadUrl(GAME_URL);
+        return webView;
+    }
+}
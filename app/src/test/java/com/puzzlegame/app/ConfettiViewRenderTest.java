@@ -0,0 +1,69 @@
+package com.puzzlegame.app;
+
+import android.graphics.Bitmap;
+import android.graphics.Canvas;
+import android.view.Choreographer;
+import android.view.View;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TestName;
+import org.junit.runner.RunWith;
+import org.robolectric.RobolectricTestRunner;
+import org.robolectric.RuntimeEnvironment;
+import org.robolectric.annotation.GraphicsMode;
+
+@RunWith(RobolectricTestRunner.class)
+@GraphicsMode(GraphicsMode.Mode.NATIVE)
+public class ConfettiViewRenderTest {
+
+    private static final int WIDTH = 1080;
+    private static final int HEIGHT = 2400;
+    private static final int[] PARTICLE_COUNTS = {100, 1000, 4096};
+    private static final long FRAME_NANOS = 16_666_667L;
+    // Half a second of falling, well before the first particles leave the screen.
+    private static final int FRAMES_PER_BURST = 30;
+
+    @Rule
+    public TestName testName = new TestName();
+
+    private final RenderBench bench = new RenderBench("ConfettiView");
+    private ConfettiView view;
+    private Canvas canvas;
+
+    @Before
+    public void setUp() {
+        view = new ConfettiView(RuntimeEnvironment.getApplication());
+        view.measure(View.MeasureSpec.makeMeasureSpec(WIDTH, View.MeasureSpec.EXACTLY),
+            View.MeasureSpec.makeMeasureSpec(HEIGHT, View.MeasureSpec.EXACTLY));
+        view.layout(0, 0, WIDTH, HEIGHT);
+        canvas = new Canvas(Bitmap.createBitmap(WIDTH, HEIGHT, Bitmap.Config.ARGB_8888));
+    }
+
+    @After
+    public void tearDown() throws Exception {
+        view.stopConfetti();
+        bench.finish(testName.getMethodName());
+    }
+
+    /** One Choreographer frame: step the particles, then draw them. */
+    @Test
+    public void frame() {
+        for (int particles : PARTICLE_COUNTS) {
+            int[] frame = {0};
+            long[] frameTime = {0};
+            bench.measure("frame[" + particles + "]", FRAMES_PER_BURST, 4 * FRAMES_PER_BURST, () -> {
+                if (frame[0]++ % FRAMES_PER_BURST == 0) {
+                    view.startConfetti(particles);
+                }
+                frameTime[0] += FRAME_NANOS;
+                view.doFrame(frameTime[0]);
+                // The main looper never runs here, so drop the callback doFrame re-posts.
+                Choreographer.getInstance().removeFrameCallback(view);
+                view.onDraw(canvas);
+            });
+        }
+    }
+}
@@ -0,0 +1,198 @@
+package com.puzzlegame.app;
+
+import static org.junit.Assert.assertEquals;
+import static org.robolectric.Shadows.shadowOf;
+
+import android.graphics.Bitmap;
+import android.graphics.Canvas;
+import android.graphics.Color;
+import android.graphics.LinearGradient;
+import android.graphics.Paint;
+import android.graphics.Shader;
+import android.os.Looper;
+import android.os.SystemClock;
+import android.view.MotionEvent;
+import android.view.View;
+
+import com.puzzlegame.core.Board;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TestName;
+import org.junit.runner.RunWith;
+import org.robolectric.RobolectricTestRunner;
+import org.robolectric.RuntimeEnvironment;
+import org.robolectric.annotation.GraphicsMode;
+
+@RunWith(RobolectricTestRunner.class)
+@GraphicsMode(GraphicsMode.Mode.NATIVE)
+public class PuzzleViewRenderTest {
+
+    private static final int VIEW_SIZE = 1080;
+    private static final int[] GRID_SIZES = {4, 8, 16};
+    // Wall-clock nanos: the paused main looper keeps SystemClock still while we wait.
+    private static final long BOARD_TIMEOUT_NANOS = 10_000_000_000L;
+
+    @Rule
+    public TestName testName = new TestName();
+
+    private final RenderBench bench = new RenderBench("PuzzleView");
+    private PuzzleView view;
+    private Bitmap image;
+    private Canvas canvas;
+
+    @Before
+    public void setUp() {
+        view = new PuzzleView(RuntimeEnvironment.getApplication());
+        view.setListener(new PuzzleView.PuzzleListener() {
+            @Override
+            public void onPieceSwapped(int moveDelta, int correctCount) {
+            }
+
+            @Override
+            public void onPuzzleComplete() {
+            }
+
+            @Override
+            public void onPuzzleReady() {
+            }
+
+            @Override
+            public void onSolverFailed() {
+            }
+        });
+        view.measure(View.MeasureSpec.makeMeasureSpec(VIEW_SIZE, View.MeasureSpec.EXACTLY),
+            View.MeasureSpec.makeMeasureSpec(VIEW_SIZE, View.MeasureSpec.EXACTLY));
+        view.layout(0, 0, VIEW_SIZE, VIEW_SIZE);
+        image = gradientImage(1024);
+        canvas = new Canvas(Bitmap.createBitmap(VIEW_SIZE, VIEW_SIZE, Bitmap.Config.ARGB_8888));
+    }
+
+    @After
+    public void tearDown() throws Exception {
+        bench.finish(testName.getMethodName());
+    }
+
+    @Test
+    public void setImage() {
+        for (int gridSize : GRID_SIZES) {
+            load(gridSize);
+            // A new image is never in the board cache, so each call cuts a new atlas.
+            bench.measure("setImage[" + gridSize + "]", 1, 3, () -> {
+                Board before = view.getBoard();
+                view.setImage(image);
+                awaitNewBoard(before);
+            });
+        }
+    }
+
+    @Test
+    public void setGridSize() {
+        for (int gridSize : GRID_SIZES) {
+            load(gridSize);
+            // Flips between two sizes; after the warm-up both come from the board cache.
+            int[] next = {gridSize + 1};
+            bench.measure("setGridSize[" + gridSize + "]", 2, 10, () -> {
+                Board before = view.getBoard();
+                view.setGridSize(next[0]);
+                awaitNewBoard(before);
+                next[0] = next[0] == gridSize ? gridSize + 1 : gridSize;
+            });
+        }
+    }
+
+    @Test
+    public void shuffle() {
+        for (int gridSize : GRID_SIZES) {
+            load(gridSize);
+            long[] seed = {1};
+            bench.measure("shuffle[" + gridSize + "]", 10, 100, () -> view.shuffle(seed[0]++));
+        }
+    }
+
+    @Test
+    public void tapSwap() {
+        for (int gridSize : GRID_SIZES) {
+            load(gridSize);
+            float[] first = cellCenter(gridSize, 0, 0);
+            float[] second = cellCenter(gridSize, 0, 1);
+            int[] missed = {0};
+            bench.measure("tapSwap[" + gridSize + "]", 10, 100, () -> {
+                Board board = view.getBoard();
+                int tile = board.getTileAt(0);
+                tap(first[0], first[1]);
+                tap(second[0], second[1]);
+                if (board.getTileAt(0) == tile) missed[0]++;
+            });
+            assertEquals("tap pairs that did not swap on a " + gridSize + "x" + gridSize + " board", 0, missed[0]);
+        }
+    }
+
+    @Test
+    public void draw() {
+        for (int gridSize : GRID_SIZES) {
+            load(gridSize);
+            bench.measure("draw[" + gridSize + "]", 5, 30, () -> view.onDraw(canvas));
+        }
+    }
+
+    @Test
+    public void drawJigsaw() {
+        view.setJigsawMode(true);
+        for (int gridSize : GRID_SIZES) {
+            load(gridSize);
+            bench.measure("drawJigsaw[" + gridSize + "]", 5, 30, () -> view.onDraw(canvas));
+        }
+    }
+
+    private void load(int gridSize) {
+        Board before = view.getBoard();
+        view.setGridSize(gridSize);
+        if (view.getOriginalImage() == null) {
+            view.setImage(image);
+        }
+        awaitNewBoard(before);
+        assertEquals(gridSize, view.getBoard().getGridSize());
+    }
+
+    // Boards are cut on BoardBuilder's thread and applied from a main-thread post.
+    private void awaitNewBoard(Board before) {
+        long start = System.nanoTime();
+        while (true) {
+            shadowOf(Looper.getMainLooper()).idle();
+            Board board = view.getBoard();
+            if (board != null && board != before) return;
+            if (System.nanoTime() - start > BOARD_TIMEOUT_NANOS) {
+                throw new AssertionError("No board within " + BOARD_TIMEOUT_NANOS / 1_000_000 + " ms");
+            }
+            Thread.yield();
+        }
+    }
+
+    // The board is centred in the view; a cell's centre is safe from rounding at any size.
+    private static float[] cellCenter(int gridSize, int row, int column) {
+        float pieceSize = (VIEW_SIZE - 40f) / gridSize;
+        float offset = (VIEW_SIZE - pieceSize * gridSize) / 2;
+        return new float[] {offset + (column + 0.5f) * pieceSize, offset + (row + 0.5f) * pieceSize};
+    }
+
+    private void tap(float x, float y) {
+        long now = SystemClock.uptimeMillis();
+        MotionEvent down = MotionEvent.obtain(now, now, MotionEvent.ACTION_DOWN, x, y, 0);
+        MotionEvent up = MotionEvent.obtain(now, now, MotionEvent.ACTION_UP, x, y, 0);
+        view.dispatchTouchEvent(down);
+        view.dispatchTouchEvent(up);
+        down.recycle();
+        up.recycle();
+    }
+
+    private static Bitmap gradientImage(int size) {
+        Bitmap bitmap = Bitmap.createBitmap(size, size, Bitmap.Config.ARGB_8888);
+        Paint paint = new Paint();
+        paint.setShader(new LinearGradient(0, 0, size, size, Color.RED, Color.BLUE, Shader.TileMode.CLAMP));
+        new Canvas(bitmap).drawRect(0, 0, size, size, paint);
+        return bitmap;
+    }
+}
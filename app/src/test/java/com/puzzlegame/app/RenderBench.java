@@ -0,0 +1,138 @@
+package com.puzzlegame.app;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.lang.management.ManagementFactory;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Properties;
+
+/**
+ * Times view operations on the test JVM and checks them against
+ * {@code render-budgets.properties}. Each test writes its results to
+ * {@code <reportDir>/<suite>.<test>.json}: one object per operation with
+ * microseconds and bytes allocated per call. Allocation is counted on the
+ * calling thread only, so work handed to a background executor is not in
+ * it, and is -1 on JVMs that cannot count it.
+ */
+final class RenderBench {
+    private static final String BUDGETS = "render-budgets.properties";
+    private static final String REPORT_DIR = "renderBench.reportDir";
+
+    static final class Result {
+        final String label;
+        final int ops;
+        final double micros;
+        final long bytes;
+
+        Result(String label, int ops, double micros, long bytes) {
+            this.label = label;
+            this.ops = ops;
+            this.micros = micros;
+            this.bytes = bytes;
+        }
+    }
+
+    private final String suite;
+    private final Properties budgets = new Properties();
+    private final List<Result> results = new ArrayList<>();
+
+    RenderBench(String suite) {
+        this.suite = suite;
+        try (InputStream in = RenderBench.class.getClassLoader().getResourceAsStream(BUDGETS)) {
+            if (in == null) throw new IllegalStateException(BUDGETS + " is not on the test classpath");
+            budgets.load(in);
+        } catch (IOException e) {
+            throw new IllegalStateException("Could not read " + BUDGETS, e);
+        }
+    }
+
+    /** Runs {@code op} {@code warmup} times, then times {@code ops} calls of it. */
+    Result measure(String label, int warmup, int ops, Runnable op) {
+        for (int i = 0; i < warmup; i++) {
+            op.run();
+        }
+        long bytesBefore = allocatedBytes();
+        long start = System.nanoTime();
+        for (int i = 0; i < ops; i++) {
+            op.run();
+        }
+        long elapsed = System.nanoTime() - start;
+        long bytesAfter = allocatedBytes();
+
+        long bytes = bytesBefore < 0 || bytesAfter < 0 ? -1 : (bytesAfter - bytesBefore) / ops;
+        Result result = new Result(label, ops, elapsed / 1000.0 / ops, bytes);
+        results.add(result);
+        return result;
+    }
+
+    /**
+     * Writes the results so far to {@code <test>}'s report and fails if any
+     * is over its budget. Keys are {@code <suite>.<label>} for microseconds
+     * and {@code alloc.<suite>.<label>} for bytes; a label's {@code [param]}
+     * suffix may be left off to cover every value.
+     */
+    void finish(String test) throws IOException {
+        writeReport(test);
+
+        List<String> violations = new ArrayList<>();
+        for (Result result : results) {
+            check(violations, "", result.label, result.micros, "us");
+            if (result.bytes >= 0) {
+                check(violations, "alloc.", result.label, result.bytes, "B");
+            }
+        }
+        results.clear();
+        if (!violations.isEmpty()) {
+            throw new AssertionError("Render budgets exceeded:\n  " + String.join("\n  ", violations));
+        }
+    }
+
+    private void check(List<String> violations, String prefix, String label, double score, String unit) {
+        String key = prefix + suite + "." + label;
+        String budget = budgets.getProperty(key);
+        if (budget == null) {
+            int bracket = label.indexOf('[');
+            if (bracket >= 0) {
+                budget = budgets.getProperty(prefix + suite + "." + label.substring(0, bracket));
+            }
+        }
+        if (budget != null && score > Double.parseDouble(budget)) {
+            violations.add(String.format(Locale.ROOT, "%s%s.%s: %.1f %s > %s", prefix, suite, label, score, unit, budget));
+        }
+    }
+
+    private void writeReport(String test) throws IOException {
+        File dir = new File(System.getProperty(REPORT_DIR, "build/reports/render-bench"));
+        if (!dir.isDirectory() && !dir.mkdirs()) {
+            throw new IOException("Could not create " + dir);
+        }
+        StringBuilder json = new StringBuilder("[\n");
+        for (int i = 0; i < results.size(); i++) {
+            Result result = results.get(i);
+            json.append(String.format(Locale.ROOT,
+                "  {\"benchmark\": \"%s.%s\", \"ops\": %d, \"usPerOp\": %.3f, \"bytesPerOp\": %d}%s%n",
+                suite, result.label, result.ops, result.micros, result.bytes,
+                i < results.size() - 1 ? "," : ""));
+        }
+        json.append("]\n");
+        File file = new File(dir, suite + "." + test + ".json");
+        try (Writer out = new OutputStreamWriter(new FileOutputStream(file), StandardCharsets.UTF_8)) {
+            out.write(json.toString());
+        }
+    }
+
+    private static long allocatedBytes() {
+        java.lang.management.ThreadMXBean threads = ManagementFactory.getThreadMXBean();
+        if (!(threads instanceof com.sun.management.ThreadMXBean)) return -1;
+        com.sun.management.ThreadMXBean hotspot = (com.sun.management.ThreadMXBean) threads;
+        if (!hotspot.isThreadAllocatedMemorySupported() || !hotspot.isThreadAllocatedMemoryEnabled()) return -1;
+        return hotspot.getThreadAllocatedBytes(Thread.currentThread().getId());
+    }
+}
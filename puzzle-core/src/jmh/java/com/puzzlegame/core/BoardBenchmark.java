@@ -0,0 +1,67 @@
+package com.puzzlegame.core;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class BoardBenchmark {
+
+    private static final int PAIRS = 1024;
+
+    @Param({"2", "3", "4", "8", "16", "32", "64"})
+    public int gridSize;
+
+    private Board board;
+    private int[] swapPairs;
+    private int next;
+
+    @Setup
+    public void setUp() {
+        board = new Board(gridSize);
+        board.setPermutation(new Scrambler(42).scramble(board.getCellCount()));
+
+        // Pre-drawn cell pairs keep RNG cost out of the measured swap.
+        Random random = new Random(42);
+        int cellCount = board.getCellCount();
+        swapPairs = new int[PAIRS * 2];
+        for (int i = 0; i < swapPairs.length; i++) {
+            swapPairs[i] = random.nextInt(cellCount);
+        }
+    }
+
+    @Benchmark
+    public int swapAndCount() {
+        int i = next;
+        next = (next + 2) & (swapPairs.length - 1);
+        board.swap(swapPairs[i], swapPairs[i + 1]);
+        return board.getCorrectCount();
+    }
+
+    @Benchmark
+    public int suggestHint() {
+        HintEngine hints = board.getHints();
+        int cell = hints.suggestCell();
+        return cell < 0 ? cell : hints.suggestPartner(cell);
+    }
+
+    @Benchmark
+    public int movesLeft() {
+        return board.getHints().getMovesLeft();
+    }
+
+    @Benchmark
+    public boolean isSolved() {
+        return board.isSolved();
+    }
+}
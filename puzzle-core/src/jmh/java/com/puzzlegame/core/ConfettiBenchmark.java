@@ -0,0 +1,62 @@
+package com.puzzlegame.core;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class ConfettiBenchmark {
+
+    private static final int COLORS = 6;
+    private static final float WIDTH = 1080;
+    private static final float HEIGHT = 2400;
+
+    @Param({"100", "1000", "10000"})
+    public int particles;
+
+    private ConfettiSystem system;
+    private float[] vertices;
+    private final int[] groupStart = new int[COLORS];
+    private final int[] groupLength = new int[COLORS];
+
+    @Setup
+    public void setUp() {
+        system = new ConfettiSystem(particles, COLORS);
+        vertices = new float[particles * ConfettiSystem.FLOATS_PER_PARTICLE];
+    }
+
+    // Fresh positions each iteration keep coordinates in an on-screen range.
+    @Setup(Level.Iteration)
+    public void respawn() {
+        system.spawn(particles, WIDTH, HEIGHT, 42);
+    }
+
+    // No floor, so the particle count stays constant while measuring.
+    @Benchmark
+    public boolean step() {
+        return system.step(1f / 120, Float.MAX_VALUE);
+    }
+
+    @Benchmark
+    public float[] writeVertices() {
+        system.writeVertices(vertices, groupStart, groupLength);
+        return vertices;
+    }
+
+    @Benchmark
+    public float[] frame() {
+        system.step(1f / 120, Float.MAX_VALUE);
+        system.writeVertices(vertices, groupStart, groupLength);
+        return vertices;
+    }
+}
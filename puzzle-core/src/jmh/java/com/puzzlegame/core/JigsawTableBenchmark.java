@@ -0,0 +1,86 @@
+package com.puzzlegame.core;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The free-form table's touch paths: finding the piece under a finger, one
+ * drag step followed by a snap check, and raising a picked-up piece. Pieces
+ * sit two piece widths apart so no drag ever joins anything and every run
+ * measures the same table; pick and dragAndSnap should not grow with the
+ * piece count, lift is linear.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class JigsawTableBenchmark {
+
+    private static final float PIECE_SIZE = 30;
+    private static final int TOUCHES = 1024;
+
+    @Param({"8", "32", "64"})
+    public int gridSize;
+
+    private JigsawTable table;
+    private float[] touches;
+    private int[] pieces;
+    private int next;
+
+    @Setup
+    public void setUp() {
+        float side = gridSize * PIECE_SIZE * 2;
+        table = new JigsawTable(gridSize, PIECE_SIZE, side, side);
+        table.scatter(42);
+        // Lay the scattered pieces out on a spread lattice in their stacking order.
+        for (int i = 0; i < table.getPieceCount(); i++) {
+            int piece = table.pieceAtDepth(i);
+            float slotX = (i % gridSize) * PIECE_SIZE * 2;
+            float slotY = (i / gridSize) * PIECE_SIZE * 2;
+            table.moveGroup(piece, slotX - table.getX(piece), slotY - table.getY(piece));
+        }
+
+        Random random = new Random(42);
+        touches = new float[TOUCHES * 2];
+        pieces = new int[TOUCHES];
+        for (int i = 0; i < TOUCHES; i++) {
+            touches[i * 2] = random.nextFloat() * side;
+            touches[i * 2 + 1] = random.nextFloat() * side;
+            pieces[i] = random.nextInt(table.getPieceCount());
+        }
+    }
+
+    @Benchmark
+    public int pick() {
+        int i = next;
+        next = (next + 1) & (TOUCHES - 1);
+        return table.pieceAt(touches[i * 2], touches[i * 2 + 1]);
+    }
+
+    @Benchmark
+    public int dragAndSnap() {
+        int piece = pieces[next];
+        next = (next + 1) & (TOUCHES - 1);
+        float step = PIECE_SIZE * 0.2f;
+        table.moveGroup(piece, step, step);
+        int joins = table.snap(piece);
+        table.moveGroup(piece, -step, -step);
+        return joins;
+    }
+
+    @Benchmark
+    public int lift() {
+        int piece = pieces[next];
+        next = (next + 1) & (TOUCHES - 1);
+        table.lift(piece);
+        return table.pieceAtDepth(0);
+    }
+}
@@ -0,0 +1,97 @@
+package com.puzzlegame.core;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The board-side work behind PuzzleView's operations: dealing a new game
+ * (setImage / setGridSize), reshuffling, a tap-tap swap, and the per-cell
+ * pass of onDraw without the canvas calls. Allocation per operation comes
+ * from the gc profiler configured in build.gradle.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class PuzzleSessionBenchmark {
+
+    private static final int AVAILABLE_SIZE = 1040;
+    private static final int TAPS = 1024;
+
+    @Param({"2", "3", "4", "8", "16", "32", "64"})
+    public int gridSize;
+
+    private Scrambler scrambler;
+    private TileGeometry geometry;
+    private Board board;
+    private int[][] deals;
+    private float[] taps;
+    private int nextDeal;
+    private int nextTap;
+
+    @Setup
+    public void setUp() {
+        scrambler = new Scrambler(42);
+        geometry = new TileGeometry(gridSize, AVAILABLE_SIZE);
+        board = new Board(gridSize);
+        deals = new int[][] {
+            scrambler.scramble(board.getCellCount()),
+            scrambler.scramble(board.getCellCount()),
+        };
+        board.setPermutation(deals[0]);
+
+        // Pre-drawn touch points (x, y pairs) inside the board.
+        Random random = new Random(42);
+        taps = new float[TAPS * 2];
+        for (int i = 0; i < taps.length; i++) {
+            taps[i] = random.nextFloat() * geometry.getBoardSize();
+        }
+    }
+
+    @Benchmark
+    public Board newGame() {
+        Board fresh = new Board(gridSize);
+        fresh.setPermutation(scrambler.scramble(fresh.getCellCount()));
+        return fresh;
+    }
+
+    @Benchmark
+    public int shuffle() {
+        nextDeal ^= 1;
+        board.setPermutation(deals[nextDeal]);
+        return board.getCorrectCount();
+    }
+
+    @Benchmark
+    public int tapSwap() {
+        int i = nextTap;
+        nextTap = (nextTap + 4) & (taps.length - 1);
+        int first = geometry.cellAt(taps[i], taps[i + 1]);
+        int second = geometry.cellAt(taps[i + 2], taps[i + 3]);
+        if (first >= 0 && second >= 0 && first != second) {
+            board.swap(first, second);
+        }
+        return board.getCorrectCount();
+    }
+
+    @Benchmark
+    public long drawPass() {
+        long sum = 0;
+        int cellCount = board.getCellCount();
+        for (int i = 0; i < cellCount; i++) {
+            int source = board.getTileAt(i);
+            sum += geometry.cellLeft(i) + geometry.cellTop(i)
+                + geometry.cellLeft(source) + geometry.cellTop(source);
+            if (board.isCorrect(i)) sum++;
+        }
+        return sum;
+    }
+}
@@ -0,0 +1,56 @@
+package com.puzzlegame.core;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class ScramblerBenchmark {
+
+    @Param({"2", "3", "4", "8", "16", "32", "64"})
+    public int gridSize;
+
+    private Scrambler scrambler;
+    private int[] tiles;
+
+    @Setup
+    public void setUp() {
+        scrambler = new Scrambler(42);
+        tiles = new int[gridSize * gridSize];
+        for (int i = 0; i < tiles.length; i++) {
+            tiles[i] = i;
+        }
+    }
+
+    @Benchmark
+    public int[] scramble() {
+        return scrambler.scramble(gridSize * gridSize);
+    }
+
+    @Benchmark
+    public int[] scrambleHalfMisplaced() {
+        int cellCount = gridSize * gridSize;
+        int misplaced = Math.max(2, cellCount / 2);
+        return scrambler.scramble(cellCount, misplaced, Scrambler.defaultCycleCount(misplaced));
+    }
+
+    @Benchmark
+    public int[] shuffle() {
+        scrambler.shuffle(tiles);
+        return tiles;
+    }
+
+    @Benchmark
+    public int[] slidingScramble() {
+        return SlidingPuzzle.scramble(gridSize, scrambler.nextInt(Integer.MAX_VALUE));
+    }
+}
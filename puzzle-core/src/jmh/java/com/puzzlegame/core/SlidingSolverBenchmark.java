@@ -0,0 +1,53 @@
+package com.puzzlegame.core;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+public class SlidingSolverBenchmark {
+
+    private static final int INSTANCES = 16;
+
+    @Param({"3", "4"})
+    public int gridSize;
+
+    private SlidingSolver solver;
+    private int[][] layouts;
+    private int next;
+
+    @Setup
+    public void setUp() throws IOException {
+        File dir = Files.createTempDirectory("pdb").toFile();
+        solver = SlidingSolver.load(gridSize, dir);
+
+        layouts = new int[INSTANCES][];
+        for (int i = 0; i < INSTANCES; i++) {
+            layouts[i] = SlidingPuzzle.scramble(gridSize, 42 + i);
+        }
+    }
+
+    @Benchmark
+    public int[] solve() {
+        int[] layout = layouts[next];
+        next = (next + 1) % INSTANCES;
+        return solver.solve(layout, Long.MAX_VALUE);
+    }
+
+    @Benchmark
+    public PatternDatabase buildDatabase() {
+        return PatternDatabase.build(gridSize, new int[] {0, 1, 2});
+    }
+}
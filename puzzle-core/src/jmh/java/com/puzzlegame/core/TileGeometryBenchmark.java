@@ -0,0 +1,52 @@
+package com.puzzlegame.core;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class TileGeometryBenchmark {
+
+    private static final int AVAILABLE_SIZE = 1040;
+
+    @Param({"2", "3", "4", "8", "16", "32", "64"})
+    public int gridSize;
+
+    private TileGeometry geometry;
+
+    @Setup
+    public void setUp() {
+        geometry = new TileGeometry(gridSize, AVAILABLE_SIZE);
+    }
+
+    @Benchmark
+    public TileGeometry build() {
+        return new TileGeometry(gridSize, AVAILABLE_SIZE);
+    }
+
+    /** Source and destination origin for every cell, as one onDraw pass computes them. */
+    @Benchmark
+    public long layoutAllCells() {
+        long sum = 0;
+        int cellCount = gridSize * gridSize;
+        for (int i = 0; i < cellCount; i++) {
+            sum += geometry.cellLeft(i) + geometry.cellTop(i);
+        }
+        return sum;
+    }
+
+    @Benchmark
+    public int hitTest() {
+        int board = geometry.getBoardSize();
+        return geometry.cellAt(board * 0.37f, board * 0.81f);
+    }
+}
@@ -0,0 +1,131 @@
+package com.puzzlegame.core;
+
+import java.util.Arrays;
+
+/**
+ * Puzzle board as a permutation: {@code cells[i]} is the tile shown in cell
+ * {@code i}, and a cell is correct when it shows its own tile. The correct
+ * count is maintained on every swap, so swaps and the solved check are O(1).
+ */
+public final class Board {
+
+    public interface Listener {
+        void onCellsSwapped(int cell1, int cell2, int correctCount);
+        void onBoardReset(int correctCount);
+        void onSolved();
+    }
+
+    private final int gridSize;
+    private final int[] cells;
+    private int correctCount;
+    private final HintEngine hints;
+    private Listener listener;
+
+    public Board(int gridSize) {
+        if (gridSize < 1) {
+            throw new IllegalArgumentException("gridSize must be positive: " + gridSize);
+        }
+        this.gridSize = gridSize;
+        this.cells = new int[gridSize * gridSize];
+        for (int i = 0; i < cells.length; i++) {
+            cells[i] = i;
+        }
+        this.correctCount = cells.length;
+        this.hints = new HintEngine(cells);
+    }
+
+    public void setListener(Listener listener) {
+        this.listener = listener;
+    }
+
+    public int getGridSize() {
+        return gridSize;
+    }
+
+    public int getCellCount() {
+        return cells.length;
+    }
+
+    public int getTileAt(int cell) {
+        return cells[cell];
+    }
+
+    public int getCellOf(int tile) {
+        return hints.positionOf(tile);
+    }
+
+    public boolean isCorrect(int cell) {
+        return cells[cell] == cell;
+    }
+
+    public int getCorrectCount() {
+        return correctCount;
+    }
+
+    public boolean isSolved() {
+        return correctCount == cells.length;
+    }
+
+    public HintEngine getHints() {
+        return hints;
+    }
+
+    public void swap(int cell1, int cell2) {
+        if (cell1 == cell2) return;
+
+        boolean sameCycle = hints.inSameCycle(cell1, cell2);
+        int before = (cells[cell1] == cell1 ? 1 : 0) + (cells[cell2] == cell2 ? 1 : 0);
+        int temp = cells[cell1];
+        cells[cell1] = cells[cell2];
+        cells[cell2] = temp;
+        int after = (cells[cell1] == cell1 ? 1 : 0) + (cells[cell2] == cell2 ? 1 : 0);
+        correctCount += after - before;
+        hints.onSwapped(cell1, cell2, sameCycle);
+
+        if (listener != null) {
+            listener.onCellsSwapped(cell1, cell2, correctCount);
+            if (isSolved()) {
+                listener.onSolved();
+            }
+        }
+    }
+
+    /**
+     * Replaces the whole arrangement. {@code tiles} must be a permutation of
+     * {@code 0..getCellCount()-1}.
+     */
+    public void setPermutation(int[] tiles) {
+        if (tiles.length != cells.length) {
+            throw new IllegalArgumentException("Expected " + cells.length + " tiles, got " + tiles.length);
+        }
+        boolean[] seen = new boolean[tiles.length];
+        for (int tile : tiles) {
+            if (tile < 0 || tile >= tiles.length || seen[tile]) {
+                throw new IllegalArgumentException("Not a permutation: " + Arrays.toString(tiles));
+            }
+            seen[tile] = true;
+        }
+
+        System.arraycopy(tiles, 0, cells, 0, tiles.length);
+        correctCount = 0;
+        for (int i = 0; i < cells.length; i++) {
+            if (cells[i] == i) correctCount++;
+        }
+        hints.rebuild();
+
+        if (listener != null) {
+            listener.onBoardReset(correctCount);
+            if (isSolved()) {
+                listener.onSolved();
+            }
+        }
+    }
+
+    public int[] copyPermutation() {
+        return cells.clone();
+    }
+
+    public void copyPermutation(int[] dst) {
+        System.arraycopy(cells, 0, dst, 0, cells.length);
+    }
+}
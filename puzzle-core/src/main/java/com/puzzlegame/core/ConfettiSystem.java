@@ -0,0 +1,171 @@
+package com.puzzlegame.core;
+
+import java.util.SplittableRandom;
+
+/**
+ * Confetti particles stored as parallel primitive arrays. Motion is
+ * integrated over real elapsed time, so the fall speed is the same at 60 and
+ * 120 Hz, and finished particles are removed by swapping in the last one so
+ * the live range stays dense.
+ *
+ * <p>{@link #writeVertices} emits two triangles per particle, grouped by
+ * color, so each color can be submitted as a single draw.
+ */
+public final class ConfettiSystem {
+    public static final int FLOATS_PER_PARTICLE = 12;
+
+    private final int capacity;
+    private final int colorCount;
+
+    private final float[] x;
+    private final float[] y;
+    private final float[] velocityX;
+    private final float[] velocityY;
+    private final float[] rotation;
+    private final float[] spin;
+    private final float[] halfWidth;
+    private final float[] halfHeight;
+    private final int[] color;
+    private final int[] colorTotals;
+    private int count;
+
+    public ConfettiSystem(int capacity, int colorCount) {
+        this.capacity = capacity;
+        this.colorCount = colorCount;
+        x = new float[capacity];
+        y = new float[capacity];
+        velocityX = new float[capacity];
+        velocityY = new float[capacity];
+        rotation = new float[capacity];
+        spin = new float[capacity];
+        halfWidth = new float[capacity];
+        halfHeight = new float[capacity];
+        color = new int[capacity];
+        colorTotals = new int[colorCount];
+    }
+
+    public int getCapacity() {
+        return capacity;
+    }
+
+    public int getColorCount() {
+        return colorCount;
+    }
+
+    public int getCount() {
+        return count;
+    }
+
+    public void clear() {
+        count = 0;
+        for (int c = 0; c < colorCount; c++) {
+            colorTotals[c] = 0;
+        }
+    }
+
+    /**
+     * Replaces the current particles with {@code particles} new ones spread
+     * across {@code width} and up to one {@code height} above the top edge.
+     * Speeds are in pixels (or radians) per second.
+     */
+    public void spawn(int particles, float width, float height, long seed) {
+        clear();
+        SplittableRandom random = new SplittableRandom(seed);
+        count = Math.min(particles, capacity);
+        for (int i = 0; i < count; i++) {
+            x[i] = (float) random.nextDouble() * width;
+            y[i] = -(float) random.nextDouble() * height;
+            velocityY[i] = 300 + (float) random.nextDouble() * 600;
+            velocityX[i] = -180 + (float) random.nextDouble() * 360;
+            rotation[i] = (float) (random.nextDouble() * 2 * Math.PI);
+            spin[i] = (float) Math.toRadians(-300 + random.nextDouble() * 600);
+            float size = 10 + (float) random.nextDouble() * 15;
+            halfWidth[i] = size / 2;
+            halfHeight[i] = size / 4;
+            color[i] = random.nextInt(colorCount);
+            colorTotals[color[i]]++;
+        }
+    }
+
+    /**
+     * Advances every particle by {@code dtSeconds} and drops the ones that
+     * have fallen past {@code floorY}. Returns false once none are left.
+     */
+    public boolean step(float dtSeconds, float floorY) {
+        int i = 0;
+        while (i < count) {
+            y[i] += velocityY[i] * dtSeconds;
+            if (y[i] >= floorY) {
+                remove(i);
+                continue;
+            }
+            x[i] += velocityX[i] * dtSeconds;
+            rotation[i] += spin[i] * dtSeconds;
+            i++;
+        }
+        return count > 0;
+    }
+
+    /**
+     * Writes every particle as two triangles into {@code vertices}, which
+     * must hold {@code getCount() * FLOATS_PER_PARTICLE} floats. Color
+     * {@code c} occupies {@code groupLength[c]} floats from
+     * {@code groupStart[c]}.
+     */
+    public void writeVertices(float[] vertices, int[] groupStart, int[] groupLength) {
+        int offset = 0;
+        for (int c = 0; c < colorCount; c++) {
+            groupStart[c] = offset;
+            groupLength[c] = colorTotals[c] * FLOATS_PER_PARTICLE;
+            offset += groupLength[c];
+        }
+
+        // groupLength doubles as the write cursor, then is restored.
+        for (int c = 0; c < colorCount; c++) {
+            groupLength[c] = 0;
+        }
+        for (int i = 0; i < count; i++) {
+            int c = color[i];
+            int o = groupStart[c] + groupLength[c];
+            groupLength[c] += FLOATS_PER_PARTICLE;
+
+            float cos = (float) Math.cos(rotation[i]);
+            float sin = (float) Math.sin(rotation[i]);
+            float wx = cos * halfWidth[i], wy = sin * halfWidth[i];
+            float hx = -sin * halfHeight[i], hy = cos * halfHeight[i];
+            float cx = x[i], cy = y[i];
+
+            // Corners a, b, c, d around the rectangle; triangles abc and acd.
+            float ax = cx - wx - hx, ay = cy - wy - hy;
+            float bx = cx + wx - hx, by = cy + wy - hy;
+            float dx = cx - wx + hx, dy = cy - wy + hy;
+            float ccx = cx + wx + hx, ccy = cy + wy + hy;
+            vertices[o] = ax;
+            vertices[o + 1] = ay;
+            vertices[o + 2] = bx;
+            vertices[o + 3] = by;
+            vertices[o + 4] = ccx;
+            vertices[o + 5] = ccy;
+            vertices[o + 6] = ax;
+            vertices[o + 7] = ay;
+            vertices[o + 8] = ccx;
+            vertices[o + 9] = ccy;
+            vertices[o + 10] = dx;
+            vertices[o + 11] = dy;
+        }
+    }
+
+    private void remove(int i) {
+        colorTotals[color[i]]--;
+        int last = --count;
+        x[i] = x[last];
+        y[i] = y[last];
+        velocityX[i] = velocityX[last];
+        velocityY[i] = velocityY[last];
+        rotation[i] = rotation[last];
+        spin[i] = spin[last];
+        halfWidth[i] = halfWidth[last];
+        halfHeight[i] = halfHeight[last];
+        color[i] = color[last];
+    }
+}
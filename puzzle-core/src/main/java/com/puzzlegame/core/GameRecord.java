@@ -0,0 +1,77 @@
+package com.puzzlegame.core;
+
+import java.nio.ByteBuffer;
+
+/** One completed game, as stored in the {@link StatsStore} log. */
+public final class GameRecord {
+    static final int ENCODED_BYTES = 4 + 1 + 4 + 8 * 4;
+    private static final int FLAG_SLIDING = 1;
+
+    private final int gridSize;
+    private final boolean sliding;
+    private final int moves;
+    private final long elapsedNanos;
+    private final long imageHash;
+    private final long seed;
+    private final long finishedAtMillis;
+
+    public GameRecord(int gridSize, boolean sliding, int moves, long elapsedNanos,
+                      long imageHash, long seed, long finishedAtMillis) {
+        this.gridSize = gridSize;
+        this.sliding = sliding;
+        this.moves = moves;
+        this.elapsedNanos = elapsedNanos;
+        this.imageHash = imageHash;
+        this.seed = seed;
+        this.finishedAtMillis = finishedAtMillis;
+    }
+
+    public int getGridSize() {
+        return gridSize;
+    }
+
+    public boolean isSliding() {
+        return sliding;
+    }
+
+    public int getMoves() {
+        return moves;
+    }
+
+    public long getElapsedNanos() {
+        return elapsedNanos;
+    }
+
+    public long getImageHash() {
+        return imageHash;
+    }
+
+    public long getSeed() {
+        return seed;
+    }
+
+    public long getFinishedAtMillis() {
+        return finishedAtMillis;
+    }
+
+    void encode(ByteBuffer out) {
+        out.putInt(gridSize);
+        out.put((byte) (sliding ? FLAG_SLIDING : 0));
+        out.putInt(moves);
+        out.putLong(elapsedNanos);
+        out.putLong(imageHash);
+        out.putLong(seed);
+        out.putLong(finishedAtMillis);
+    }
+
+    static GameRecord decode(ByteBuffer in) {
+        int gridSize = in.getInt();
+        boolean sliding = (in.get() & FLAG_SLIDING) != 0;
+        int moves = in.getInt();
+        long elapsedNanos = in.getLong();
+        long imageHash = in.getLong();
+        long seed = in.getLong();
+        long finishedAtMillis = in.getLong();
+        return new GameRecord(gridSize, sliding, moves, elapsedNanos, imageHash, seed, finishedAtMillis);
+    }
+}
@@ -0,0 +1,195 @@
+package com.puzzlegame.core;
+
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.util.zip.CRC32;
+
+/**
+ * A game in progress as a small versioned binary record: the board
+ * permutation bit-packed at {@code ceil(log2(cellCount))} bits per cell, plus
+ * the counters needed to carry on where the player left off. The image is
+ * not stored here, only the stamp of the cached board image it belongs to.
+ *
+ * <p>Files are written to a temporary name and renamed, and carry a CRC, so
+ * a torn write reads back as "no snapshot" rather than a corrupt board.
+ * Writes are not fsynced, so they are cheap enough for a UI thread; a
+ * power cut can lose the last save but never leave a damaged one.
+ */
+public final class GameSnapshot {
+    private static final int MAGIC = 0x505A5356; // "PZSV"
+    private static final int VERSION = 1;
+    private static final int HEADER_BYTES = 4 * 4 + 4 * 2 + 8 * 3;
+    private static final int FLAG_SLIDING = 1;
+
+    private final int gridSize;
+    private final boolean sliding;
+    private final int[] permutation;
+    private final int moves;
+    private final long elapsedNanos;
+    private final long seed;
+    private final long imageStamp;
+
+    public GameSnapshot(int gridSize, boolean sliding, int[] permutation, int moves,
+                        long elapsedNanos, long seed, long imageStamp) {
+        if (permutation.length != gridSize * gridSize) {
+            throw new IllegalArgumentException("Permutation does not match the grid size");
+        }
+        this.gridSize = gridSize;
+        this.sliding = sliding;
+        this.permutation = permutation;
+        this.moves = moves;
+        this.elapsedNanos = elapsedNanos;
+        this.seed = seed;
+        this.imageStamp = imageStamp;
+    }
+
+    public int getGridSize() {
+        return gridSize;
+    }
+
+    public boolean isSliding() {
+        return sliding;
+    }
+
+    public int[] getPermutation() {
+        return permutation;
+    }
+
+    public int getMoves() {
+        return moves;
+    }
+
+    public long getElapsedNanos() {
+        return elapsedNanos;
+    }
+
+    public long getSeed() {
+        return seed;
+    }
+
+    public long getImageStamp() {
+        return imageStamp;
+    }
+
+    public void write(File file) throws IOException {
+        ByteBuffer buffer = encode();
+        File tmp = new File(file.getPath() + ".tmp");
+        try (FileOutputStream out = new FileOutputStream(tmp)) {
+            FileChannel channel = out.getChannel();
+            while (buffer.hasRemaining()) {
+                channel.write(buffer);
+            }
+        }
+        if (!tmp.renameTo(file)) {
+            throw new IOException("Could not move " + tmp + " to " + file);
+        }
+    }
+
+    /** Returns the snapshot in {@code file}, or null if it is missing, stale or damaged. */
+    public static GameSnapshot read(File file) {
+        if (!file.isFile()) return null;
+        try (FileInputStream in = new FileInputStream(file)) {
+            FileChannel channel = in.getChannel();
+            long size = channel.size();
+            if (size < HEADER_BYTES + 8 || size > Integer.MAX_VALUE) return null;
+            ByteBuffer buffer = ByteBuffer.allocate((int) size);
+            while (buffer.hasRemaining()) {
+                if (channel.read(buffer) < 0) return null;
+            }
+            buffer.flip();
+            return decode(buffer);
+        } catch (IOException e) {
+            return null;
+        }
+    }
+
+    ByteBuffer encode() {
+        int bits = bitsPerCell(permutation.length);
+        int packedInts = (int) (((long) permutation.length * bits + 31) / 32);
+        ByteBuffer buffer = ByteBuffer.allocate(HEADER_BYTES + packedInts * 4 + 8);
+
+        buffer.putInt(MAGIC);
+        buffer.putInt(VERSION);
+        buffer.putInt(gridSize);
+        buffer.putInt(sliding ? FLAG_SLIDING : 0);
+        buffer.putInt(moves);
+        buffer.putInt(packedInts);
+        buffer.putLong(elapsedNanos);
+        buffer.putLong(seed);
+        buffer.putLong(imageStamp);
+
+        long acc = 0;
+        int accBits = 0;
+        for (int tile : permutation) {
+            acc |= (long) tile << accBits;
+            accBits += bits;
+            if (accBits >= 32) {
+                buffer.putInt((int) acc);
+                acc >>>= 32;
+                accBits -= 32;
+            }
+        }
+        if (accBits > 0) {
+            buffer.putInt((int) acc);
+        }
+
+        buffer.putLong(crc(buffer.array(), buffer.position()));
+        buffer.flip();
+        return buffer;
+    }
+
+    static GameSnapshot decode(ByteBuffer buffer) {
+        int end = buffer.limit() - 8;
+        if (end < HEADER_BYTES) return null;
+        if (buffer.getLong(end) != crc(buffer.array(), end)) return null;
+        if (buffer.getInt() != MAGIC || buffer.getInt() != VERSION) return null;
+
+        int gridSize = buffer.getInt();
+        int flags = buffer.getInt();
+        int moves = buffer.getInt();
+        int packedInts = buffer.getInt();
+        long elapsedNanos = buffer.getLong();
+        long seed = buffer.getLong();
+        long imageStamp = buffer.getLong();
+        if (gridSize < 1 || gridSize > 4096 || packedInts * 4 != end - HEADER_BYTES) return null;
+
+        int cellCount = gridSize * gridSize;
+        int bits = bitsPerCell(cellCount);
+        if ((long) packedInts * 32 < (long) cellCount * bits) return null;
+
+        int[] permutation = new int[cellCount];
+        boolean[] seen = new boolean[cellCount];
+        long mask = (1L << bits) - 1;
+        long acc = 0;
+        int accBits = 0;
+        for (int i = 0; i < cellCount; i++) {
+            if (accBits < bits) {
+                acc |= (buffer.getInt() & 0xFFFFFFFFL) << accBits;
+                accBits += 32;
+            }
+            int tile = (int) (acc & mask);
+            acc >>>= bits;
+            accBits -= bits;
+            if (tile >= cellCount || seen[tile]) return null;
+            seen[tile] = true;
+            permutation[i] = tile;
+        }
+
+        return new GameSnapshot(gridSize, (flags & FLAG_SLIDING) != 0, permutation, moves,
+            elapsedNanos, seed, imageStamp);
+    }
+
+    static int bitsPerCell(int cellCount) {
+        return Math.max(1, 32 - Integer.numberOfLeadingZeros(cellCount - 1));
+    }
+
+    private static long crc(byte[] bytes, int length) {
+        CRC32 crc = new CRC32();
+        crc.update(bytes, 0, length);
+        return crc.getValue();
+    }
+}
@@ -0,0 +1,95 @@
+package com.puzzlegame.core;
+
+import java.nio.ByteBuffer;
+
+/** Running totals for one grid size and mode, updated one game at a time. */
+public final class GridStats {
+    private final int gridSize;
+    private final boolean sliding;
+    private long games;
+    private long bestNanos = Long.MAX_VALUE;
+    private int bestMoves = Integer.MAX_VALUE;
+    private long totalNanos;
+    private Histogram moves = new Histogram();
+
+    GridStats(int gridSize, boolean sliding) {
+        this.gridSize = gridSize;
+        this.sliding = sliding;
+    }
+
+    void add(GameRecord record) {
+        games++;
+        bestNanos = Math.min(bestNanos, record.getElapsedNanos());
+        bestMoves = Math.min(bestMoves, record.getMoves());
+        totalNanos += record.getElapsedNanos();
+        moves.record(record.getMoves());
+    }
+
+    void add(GridStats other) {
+        games += other.games;
+        bestNanos = Math.min(bestNanos, other.bestNanos);
+        bestMoves = Math.min(bestMoves, other.bestMoves);
+        totalNanos += other.totalNanos;
+        moves.add(other.moves);
+    }
+
+    GridStats copy() {
+        GridStats copy = new GridStats(gridSize, sliding);
+        copy.add(this);
+        return copy;
+    }
+
+    public int getGridSize() {
+        return gridSize;
+    }
+
+    public boolean isSliding() {
+        return sliding;
+    }
+
+    public long getGames() {
+        return games;
+    }
+
+    /** Fastest completion, or -1 if no game was finished yet. */
+    public long getBestNanos() {
+        return games == 0 ? -1 : bestNanos;
+    }
+
+    public int getBestMoves() {
+        return games == 0 ? -1 : bestMoves;
+    }
+
+    public long getAverageNanos() {
+        return games == 0 ? -1 : totalNanos / games;
+    }
+
+    /** Moves at {@code percentile} (0-100); see {@link Histogram#percentile}. */
+    public long getMovesPercentile(double percentile) {
+        return moves.percentile(percentile);
+    }
+
+    int encodedSize() {
+        return 4 + 1 + 8 * 3 + 4 + moves.encodedSize();
+    }
+
+    void encode(ByteBuffer out) {
+        out.putInt(gridSize);
+        out.put((byte) (sliding ? 1 : 0));
+        out.putLong(games);
+        out.putLong(bestNanos);
+        out.putLong(totalNanos);
+        out.putInt(bestMoves);
+        moves.encode(out);
+    }
+
+    static GridStats decode(ByteBuffer in) {
+        GridStats stats = new GridStats(in.getInt(), in.get() != 0);
+        stats.games = in.getLong();
+        stats.bestNanos = in.getLong();
+        stats.totalNanos = in.getLong();
+        stats.bestMoves = in.getInt();
+        stats.moves = Histogram.decode(in);
+        return stats;
+    }
+}
@@ -0,0 +1,114 @@
+package com.puzzlegame.core;
+
+/**
+ * Tracks the cycle decomposition of a {@link Board} permutation. The minimum
+ * number of swaps left is {@code cellCount - cycleCount}, and swapping a
+ * misplaced cell with the cell holding its tile always splits a cycle, so it
+ * is a provably optimal next move.
+ *
+ * <p>Hints are O(1). A swap costs O(length of the cycle it touches), which is
+ * what it takes to tell a split from a merge.
+ */
+public final class HintEngine {
+    private final int[] cells;
+    private final int[] positions;
+    private final int[] misplaced;
+    private final int[] misplacedSlot;
+    private int misplacedCount;
+    private int cycleCount;
+
+    HintEngine(int[] cells) {
+        this.cells = cells;
+        this.positions = new int[cells.length];
+        this.misplaced = new int[cells.length];
+        this.misplacedSlot = new int[cells.length];
+        rebuild();
+    }
+
+    void rebuild() {
+        misplacedCount = 0;
+        for (int cell = 0; cell < cells.length; cell++) {
+            positions[cells[cell]] = cell;
+            misplacedSlot[cell] = -1;
+            if (cells[cell] != cell) {
+                addMisplaced(cell);
+            }
+        }
+
+        // Fixed points are one cycle each; walk every other cycle once.
+        cycleCount = cells.length - misplacedCount;
+        boolean[] visited = new boolean[cells.length];
+        for (int i = 0; i < misplacedCount; i++) {
+            int start = misplaced[i];
+            if (visited[start]) continue;
+            cycleCount++;
+            int cell = start;
+            do {
+                visited[cell] = true;
+                cell = cells[cell];
+            } while (cell != start);
+        }
+    }
+
+    boolean inSameCycle(int cell1, int cell2) {
+        if (cell1 == cell2) return true;
+        for (int cell = cells[cell1]; cell != cell1; cell = cells[cell]) {
+            if (cell == cell2) return true;
+        }
+        return false;
+    }
+
+    /** Must be called after {@code cells[cell1]} and {@code cells[cell2]} were exchanged. */
+    void onSwapped(int cell1, int cell2, boolean sameCycle) {
+        cycleCount += sameCycle ? 1 : -1;
+        positions[cells[cell1]] = cell1;
+        positions[cells[cell2]] = cell2;
+        updateMisplaced(cell1);
+        updateMisplaced(cell2);
+    }
+
+    public int getCycleCount() {
+        return cycleCount;
+    }
+
+    public int getMovesLeft() {
+        return cells.length - cycleCount;
+    }
+
+    /** Returns a misplaced cell to move next, or -1 if the board is solved. */
+    public int suggestCell() {
+        return misplacedCount == 0 ? -1 : misplaced[misplacedCount - 1];
+    }
+
+    /** Returns the cell to swap {@code cell} with so that it receives its own tile. */
+    public int suggestPartner(int cell) {
+        return positions[cell];
+    }
+
+    int positionOf(int tile) {
+        return positions[tile];
+    }
+
+    private void updateMisplaced(int cell) {
+        boolean isMisplaced = cells[cell] != cell;
+        boolean tracked = misplacedSlot[cell] >= 0;
+        if (isMisplaced && !tracked) {
+            addMisplaced(cell);
+        } else if (!isMisplaced && tracked) {
+            removeMisplaced(cell);
+        }
+    }
+
+    private void addMisplaced(int cell) {
+        misplacedSlot[cell] = misplacedCount;
+        misplaced[misplacedCount++] = cell;
+    }
+
+    private void removeMisplaced(int cell) {
+        int slot = misplacedSlot[cell];
+        int last = misplaced[--misplacedCount];
+        misplaced[slot] = last;
+        misplacedSlot[last] = slot;
+        misplacedSlot[cell] = -1;
+    }
+}
@@ -0,0 +1,111 @@
+package com.puzzlegame.core;
+
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+
+/**
+ * Log-linear histogram of non-negative longs: values below 64 are counted
+ * exactly, larger ones in 32 sub-buckets per power of two (at most about 3%
+ * relative error). Recording is O(1) and percentiles scan at most a couple
+ * of thousand buckets, so nothing needs the raw samples.
+ */
+public final class Histogram {
+    static final int SUB_BUCKET_BITS = 5;
+    static final int SUB_BUCKETS = 1 << SUB_BUCKET_BITS;
+    static final int BUCKET_COUNT = bucketOf(Long.MAX_VALUE) + 1;
+
+    private long[] counts = new long[2 * SUB_BUCKETS];
+    private long total;
+
+    public static int bucketOf(long value) {
+        if (value < 2 * SUB_BUCKETS) return (int) Math.max(0, value);
+        int exponent = 63 - Long.numberOfLeadingZeros(value);
+        int shift = exponent - SUB_BUCKET_BITS;
+        return (shift + 1) * SUB_BUCKETS + (int) ((value >>> shift) & (SUB_BUCKETS - 1));
+    }
+
+    /** Smallest value that falls into {@code bucket}. */
+    public static long lowestValue(int bucket) {
+        if (bucket < 2 * SUB_BUCKETS) return bucket;
+        int shift = bucket / SUB_BUCKETS - 1;
+        return (long) (SUB_BUCKETS + bucket % SUB_BUCKETS) << shift;
+    }
+
+    public void record(long value) {
+        int bucket = bucketOf(value);
+        if (bucket >= counts.length) {
+            counts = Arrays.copyOf(counts, bucket + 1);
+        }
+        counts[bucket]++;
+        total++;
+    }
+
+    public void add(Histogram other) {
+        if (other.counts.length > counts.length) {
+            counts = Arrays.copyOf(counts, other.counts.length);
+        }
+        for (int i = 0; i < other.counts.length; i++) {
+            counts[i] += other.counts[i];
+        }
+        total += other.total;
+    }
+
+    public long getTotalCount() {
+        return total;
+    }
+
+    /**
+     * Value at {@code percentile} (0-100), reported as the lowest value of
+     * its bucket. Returns -1 if nothing was recorded.
+     */
+    public long percentile(double percentile) {
+        if (total == 0) return -1;
+        long rank = Math.max(1, (long) Math.ceil(percentile / 100 * total));
+        long seen = 0;
+        for (int i = 0; i < counts.length; i++) {
+            seen += counts[i];
+            if (seen >= rank) return lowestValue(i);
+        }
+        return lowestValue(counts.length - 1);
+    }
+
+    int encodedSize() {
+        int used = 0;
+        for (long count : counts) {
+            if (count != 0) used++;
+        }
+        return 4 + used * (4 + 8);
+    }
+
+    /** Writes the non-empty buckets as (index, count) pairs. */
+    void encode(ByteBuffer out) {
+        int start = out.position();
+        out.putInt(0);
+        int used = 0;
+        for (int i = 0; i < counts.length; i++) {
+            if (counts[i] == 0) continue;
+            out.putInt(i);
+            out.putLong(counts[i]);
+            used++;
+        }
+        out.putInt(start, used);
+    }
+
+    static Histogram decode(ByteBuffer in) {
+        Histogram histogram = new Histogram();
+        int used = in.getInt();
+        for (int i = 0; i < used; i++) {
+            int bucket = in.getInt();
+            long count = in.getLong();
+            if (bucket < 0 || bucket >= BUCKET_COUNT || count < 0) {
+                throw new IllegalArgumentException("Bad histogram bucket " + bucket);
+            }
+            if (bucket >= histogram.counts.length) {
+                histogram.counts = Arrays.copyOf(histogram.counts, bucket + 1);
+            }
+            histogram.counts[bucket] += count;
+            histogram.total += count;
+        }
+        return histogram;
+    }
+}
@@ -0,0 +1,83 @@
+package com.puzzlegame.core;
+
+import java.util.SplittableRandom;
+
+/**
+ * Tab and blank edges for a jigsaw cut of a square grid. Every inner edge
+ * is a tab on one side and a blank on the other; the border is flat. A
+ * piece's shape packs its four edges into one number, so a grid of any size
+ * has at most {@link #SHAPE_COUNT} distinct shapes.
+ */
+public final class JigsawEdges {
+    public static final int FLAT = 0;
+    public static final int TAB = 1;
+    public static final int BLANK = 2;
+
+    public static final int TOP = 0;
+    public static final int RIGHT = 1;
+    public static final int BOTTOM = 2;
+    public static final int LEFT = 3;
+
+    public static final int SHAPE_COUNT = 3 * 3 * 3 * 3;
+
+    private final int gridSize;
+    // True when the piece above the edge under (row, col) carries the tab.
+    private final boolean[] tabAbove;
+    // True when the piece left of the edge right of (row, col) carries the tab.
+    private final boolean[] tabLeft;
+
+    public JigsawEdges(int gridSize, long seed) {
+        if (gridSize < 1) {
+            throw new IllegalArgumentException("gridSize must be positive: " + gridSize);
+        }
+        this.gridSize = gridSize;
+        SplittableRandom random = new SplittableRandom(seed);
+        tabAbove = new boolean[(gridSize - 1) * gridSize];
+        tabLeft = new boolean[gridSize * (gridSize - 1)];
+        for (int i = 0; i < tabAbove.length; i++) {
+            tabAbove[i] = random.nextBoolean();
+        }
+        for (int i = 0; i < tabLeft.length; i++) {
+            tabLeft[i] = random.nextBoolean();
+        }
+    }
+
+    public int getGridSize() {
+        return gridSize;
+    }
+
+    /** {@link #FLAT}, {@link #TAB} or {@link #BLANK} for {@code side} of {@code piece}. */
+    public int edge(int piece, int side) {
+        int row = piece / gridSize;
+        int col = piece % gridSize;
+        switch (side) {
+            case TOP:
+                if (row == 0) return FLAT;
+                return tabAbove[(row - 1) * gridSize + col] ? BLANK : TAB;
+            case BOTTOM:
+                if (row == gridSize - 1) return FLAT;
+                return tabAbove[row * gridSize + col] ? TAB : BLANK;
+            case LEFT:
+                if (col == 0) return FLAT;
+                return tabLeft[row * (gridSize - 1) + col - 1] ? BLANK : TAB;
+            case RIGHT:
+                if (col == gridSize - 1) return FLAT;
+                return tabLeft[row * (gridSize - 1) + col] ? TAB : BLANK;
+            default:
+                throw new IllegalArgumentException("side: " + side);
+        }
+    }
+
+    /** The four edges of {@code piece} as a number below {@link #SHAPE_COUNT}. */
+    public int shapeOf(int piece) {
+        return edge(piece, TOP) + 3 * edge(piece, RIGHT) + 9 * edge(piece, BOTTOM) + 27 * edge(piece, LEFT);
+    }
+
+    /** The edge on {@code side} of a shape returned by {@link #shapeOf}. */
+    public static int edgeOf(int shape, int side) {
+        for (int i = 0; i < side; i++) {
+            shape /= 3;
+        }
+        return shape % 3;
+    }
+}
@@ -0,0 +1,292 @@
+package com.puzzlegame.core;
+
+import java.util.SplittableRandom;
+
+/**
+ * Free-form jigsaw: the pieces of a {@code gridSize} x {@code gridSize}
+ * picture lie anywhere on a table and are joined by dropping them next to
+ * a matching neighbour. A piece's position is the top-left of its square
+ * (tabs are drawing only). Joined pieces share a {@link PieceGroups} group
+ * and always move together.
+ *
+ * <p>Every piece is also filed in a {@link SpatialHash} whose buckets are
+ * one piece wide, so hit tests and snap checks only look at the few pieces
+ * near a point, however many lie on the table. Pieces are drawn bottom to
+ * top in {@link #pieceAtDepth} order; picking a group up raises it.
+ */
+public final class JigsawTable {
+    public static final int NONE = -1;
+
+    /** How far from its place a neighbour may be dropped and still join, in pieces. */
+    public static final float SNAP_FRACTION = 0.25f;
+
+    private final int gridSize;
+    private final int pieceCount;
+    private final float pieceSize;
+    private final float width;
+    private final float height;
+    private final float snapDistance;
+    private final float[] x;
+    private final float[] y;
+    // order[depth] = piece, bottom first; depth[piece] is the inverse.
+    private final int[] order;
+    private final int[] depth;
+    private final int[] scratch;
+    private final PieceGroups groups;
+    private final SpatialHash hash;
+
+    public JigsawTable(int gridSize, float pieceSize, float width, float height) {
+        if (gridSize < 1) {
+            throw new IllegalArgumentException("gridSize must be positive: " + gridSize);
+        }
+        this.gridSize = gridSize;
+        this.pieceCount = gridSize * gridSize;
+        this.pieceSize = pieceSize;
+        this.width = width;
+        this.height = height;
+        this.snapDistance = pieceSize * SNAP_FRACTION;
+        x = new float[pieceCount];
+        y = new float[pieceCount];
+        order = new int[pieceCount];
+        depth = new int[pieceCount];
+        scratch = new int[pieceCount];
+        groups = new PieceGroups(pieceCount);
+        hash = new SpatialHash(pieceCount, width, height, pieceSize);
+    }
+
+    /** Splits every group and drops the pieces at random places and depths. */
+    public void scatter(long seed) {
+        SplittableRandom random = new SplittableRandom(seed);
+        groups.reset();
+        hash.clear();
+        float spanX = Math.max(0, width - pieceSize);
+        float spanY = Math.max(0, height - pieceSize);
+        for (int i = 0; i < pieceCount; i++) {
+            order[i] = i;
+        }
+        for (int i = pieceCount - 1; i > 0; i--) {
+            int j = random.nextInt(i + 1);
+            int temp = order[i];
+            order[i] = order[j];
+            order[j] = temp;
+        }
+        for (int i = 0; i < pieceCount; i++) {
+            int piece = order[i];
+            depth[piece] = i;
+            x[piece] = (float) (random.nextDouble() * spanX);
+            y[piece] = (float) (random.nextDouble() * spanY);
+            hash.put(piece, x[piece], y[piece]);
+        }
+    }
+
+    /**
+     * A copy of this table for a new piece size and table size, e.g. after
+     * the view was resized. Positions scale with the piece size, so joined
+     * pieces stay flush; then any group that ended up off the table is
+     * shifted back onto it as a whole. Groups and stacking order are kept.
+     */
+    public JigsawTable resized(float newPieceSize, float newWidth, float newHeight) {
+        JigsawTable resized = new JigsawTable(gridSize, newPieceSize, newWidth, newHeight);
+        float scale = newPieceSize / pieceSize;
+        for (int piece = 0; piece < pieceCount; piece++) {
+            resized.x[piece] = x[piece] * scale;
+            resized.y[piece] = y[piece] * scale;
+            resized.order[piece] = order[piece];
+            resized.depth[piece] = depth[piece];
+            resized.groups.union(piece, groups.next(piece));
+        }
+        for (int piece = 0; piece < pieceCount; piece++) {
+            resized.hash.put(piece, resized.x[piece], resized.y[piece]);
+        }
+        for (int piece = 0; piece < pieceCount; piece++) {
+            if (resized.groups.find(piece) == piece) {
+                resized.moveOntoTable(piece);
+            }
+        }
+        return resized;
+    }
+
+    public int getGridSize() {
+        return gridSize;
+    }
+
+    public int getPieceCount() {
+        return pieceCount;
+    }
+
+    public float getPieceSize() {
+        return pieceSize;
+    }
+
+    public float getWidth() {
+        return width;
+    }
+
+    public float getHeight() {
+        return height;
+    }
+
+    public float getX(int piece) {
+        return x[piece];
+    }
+
+    public float getY(int piece) {
+        return y[piece];
+    }
+
+    /** The piece drawn {@code depth}-th, 0 being the bottom one. */
+    public int pieceAtDepth(int depth) {
+        return order[depth];
+    }
+
+    public PieceGroups getGroups() {
+        return groups;
+    }
+
+    public int getGroupCount() {
+        return groups.getGroupCount();
+    }
+
+    public boolean isComplete() {
+        return groups.getGroupCount() == 1;
+    }
+
+    /** The topmost piece whose square contains ({@code px}, {@code py}), or {@link #NONE}. */
+    public int pieceAt(float px, float py) {
+        int best = NONE;
+        int bestDepth = -1;
+        int lastColumn = hash.columnAt(px);
+        int lastRow = hash.rowAt(py);
+        for (int row = hash.rowAt(py - pieceSize); row <= lastRow; row++) {
+            for (int column = hash.columnAt(px - pieceSize); column <= lastColumn; column++) {
+                for (int piece = hash.first(column, row); piece != SpatialHash.NONE; piece = hash.next(piece)) {
+                    if (depth[piece] > bestDepth
+                            && px >= x[piece] && px < x[piece] + pieceSize
+                            && py >= y[piece] && py < y[piece] + pieceSize) {
+                        best = piece;
+                        bestDepth = depth[piece];
+                    }
+                }
+            }
+        }
+        return best;
+    }
+
+    /** Raises the group holding {@code piece} above every other, keeping its own stacking. O(n). */
+    public void lift(int piece) {
+        int root = groups.find(piece);
+        int below = 0;
+        int above = pieceCount - groups.sizeOf(root);
+        for (int i = 0; i < pieceCount; i++) {
+            int p = order[i];
+            if (groups.find(p) == root) {
+                scratch[above++] = p;
+            } else {
+                scratch[below++] = p;
+            }
+        }
+        for (int i = 0; i < pieceCount; i++) {
+            order[i] = scratch[i];
+            depth[scratch[i]] = i;
+        }
+    }
+
+    /** Moves the group holding {@code piece} by ({@code dx}, {@code dy}). O(group size). */
+    public void moveGroup(int piece, float dx, float dy) {
+        int member = piece;
+        do {
+            x[member] += dx;
+            y[member] += dy;
+            hash.put(member, x[member], y[member]);
+            member = groups.next(member);
+        } while (member != piece);
+    }
+
+    /**
+     * Joins the group holding {@code piece} to every neighbouring piece lying
+     * within {@link #SNAP_FRACTION} of its place. The first join pulls this
+     * group into line; later ones pull the other group onto it. Returns the
+     * number of joins made.
+     */
+    public int snap(int piece) {
+        int joins = 0;
+        while (true) {
+            int bestMember = NONE;
+            int bestOther = NONE;
+            float bestDx = 0;
+            float bestDy = 0;
+            float bestDistance = snapDistance * snapDistance;
+
+            int member = piece;
+            do {
+                if (hasOpenSide(member)) {
+                    int row = member / gridSize;
+                    int column = member % gridSize;
+                    float reach = pieceSize + snapDistance;
+                    int lastColumn = hash.columnAt(x[member] + reach);
+                    int lastRow = hash.rowAt(y[member] + reach);
+                    for (int r = hash.rowAt(y[member] - reach); r <= lastRow; r++) {
+                        for (int c = hash.columnAt(x[member] - reach); c <= lastColumn; c++) {
+                            for (int other = hash.first(c, r); other != SpatialHash.NONE; other = hash.next(other)) {
+                                int dRow = other / gridSize - row;
+                                int dColumn = other % gridSize - column;
+                                if (Math.abs(dRow) + Math.abs(dColumn) != 1 || groups.connected(member, other)) {
+                                    continue;
+                                }
+                                float dx = x[other] - (x[member] + dColumn * pieceSize);
+                                float dy = y[other] - (y[member] + dRow * pieceSize);
+                                float distance = dx * dx + dy * dy;
+                                if (distance <= bestDistance) {
+                                    bestMember = member;
+                                    bestOther = other;
+                                    bestDx = dx;
+                                    bestDy = dy;
+                                    bestDistance = distance;
+                                }
+                            }
+                        }
+                    }
+                }
+                member = groups.next(member);
+            } while (member != piece);
+
+            if (bestOther == NONE) return joins;
+            if (joins == 0) {
+                moveGroup(bestMember, bestDx, bestDy);
+            } else {
+                moveGroup(bestOther, -bestDx, -bestDy);
+            }
+            groups.union(bestMember, bestOther);
+            joins++;
+        }
+    }
+
+    // Shifts the group holding piece onto the table; one too big to fit keeps its top-left on it.
+    private void moveOntoTable(int piece) {
+        float minX = x[piece];
+        float minY = y[piece];
+        float maxX = minX;
+        float maxY = minY;
+        for (int member = groups.next(piece); member != piece; member = groups.next(member)) {
+            minX = Math.min(minX, x[member]);
+            minY = Math.min(minY, y[member]);
+            maxX = Math.max(maxX, x[member]);
+            maxY = Math.max(maxY, y[member]);
+        }
+        float dx = Math.max(-minX, Math.min(0, width - pieceSize - maxX));
+        float dy = Math.max(-minY, Math.min(0, height - pieceSize - maxY));
+        if (dx != 0 || dy != 0) {
+            moveGroup(piece, dx, dy);
+        }
+    }
+
+    // True if some grid neighbour of the piece is not yet in its group.
+    private boolean hasOpenSide(int piece) {
+        int row = piece / gridSize;
+        int column = piece % gridSize;
+        return row > 0 && !groups.connected(piece, piece - gridSize)
+            || row < gridSize - 1 && !groups.connected(piece, piece + gridSize)
+            || column > 0 && !groups.connected(piece, piece - 1)
+            || column < gridSize - 1 && !groups.connected(piece, piece + 1);
+    }
+}
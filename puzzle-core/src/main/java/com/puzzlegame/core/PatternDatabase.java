@@ -0,0 +1,224 @@
+package com.puzzlegame.core;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.util.Arrays;
+
+/**
+ * Additive pattern database for the sliding-tile puzzle: for each placement
+ * of a subset of tiles, the fewest moves of those tiles needed to bring them
+ * home. Gap moves that only shift other tiles cost nothing, so databases over
+ * disjoint tile sets can be summed and still never overestimate.
+ *
+ * <p>Entries are indexed by {@code sum(position[slot] * cellCount^slot)}, one
+ * byte each. A 5-tile 4x4 database is 1 MiB.
+ */
+public final class PatternDatabase {
+    private static final byte UNSET = (byte) 0xFF;
+
+    private final int cellCount;
+    private final int[] tiles;
+    private final int[] weights;
+    private final ByteBuffer data;
+
+    private PatternDatabase(int gridSize, int[] tiles, ByteBuffer data) {
+        this.cellCount = gridSize * gridSize;
+        this.tiles = tiles.clone();
+        this.weights = new int[tiles.length];
+        int weight = 1;
+        for (int slot = 0; slot < tiles.length; slot++) {
+            weights[slot] = weight;
+            weight *= cellCount;
+        }
+        this.data = data;
+    }
+
+    public static long sizeInBytes(int gridSize, int tileCount) {
+        long size = 1;
+        for (int i = 0; i < tileCount; i++) {
+            size *= (long) gridSize * gridSize;
+        }
+        return size;
+    }
+
+    /**
+     * Memory-maps {@code file} if it holds a database of the right size,
+     * otherwise builds one and writes it there first.
+     */
+    public static PatternDatabase loadOrBuild(int gridSize, int[] tiles, File file) throws IOException {
+        long expected = sizeInBytes(gridSize, tiles.length);
+        if (!file.isFile() || file.length() != expected) {
+            PatternDatabase built = build(gridSize, tiles);
+            File tmp = new File(file.getPath() + ".tmp");
+            try (RandomAccessFile out = new RandomAccessFile(tmp, "rw");
+                 FileChannel channel = out.getChannel()) {
+                channel.truncate(0);
+                ByteBuffer buffer = built.data.duplicate();
+                buffer.rewind();
+                while (buffer.hasRemaining()) {
+                    channel.write(buffer);
+                }
+            }
+            if (!tmp.renameTo(file)) {
+                throw new IOException("Could not move " + tmp + " to " + file);
+            }
+        }
+
+        try (RandomAccessFile in = new RandomAccessFile(file, "r");
+             FileChannel channel = in.getChannel()) {
+            ByteBuffer mapped = channel.map(FileChannel.MapMode.READ_ONLY, 0, expected);
+            return new PatternDatabase(gridSize, tiles, mapped);
+        }
+    }
+
+    /**
+     * Breadth-first search backwards from the goal over (pattern placement,
+     * gap cell) states. Gap moves into non-pattern cells are free, so each
+     * dequeued state floods its gap region at the same distance before the
+     * next level is expanded.
+     */
+    public static PatternDatabase build(int gridSize, int[] tiles) {
+        int cellCount = gridSize * gridSize;
+        int tileCount = tiles.length;
+        int[][] neighbours = neighbours(gridSize);
+
+        int patternCount = (int) sizeInBytes(gridSize, tileCount);
+        byte[] distances = new byte[patternCount];
+        Arrays.fill(distances, UNSET);
+        long[] visited = new long[(int) (((long) patternCount * cellCount + 63) >>> 6)];
+
+        int[] weights = new int[tileCount];
+        int goal = 0;
+        for (int slot = 0, weight = 1; slot < tileCount; slot++, weight *= cellCount) {
+            weights[slot] = weight;
+            goal += tiles[slot] * weight;
+        }
+
+        IntQueue current = new IntQueue();
+        IntQueue next = new IntQueue();
+        current.add(goal * cellCount + cellCount - 1);
+
+        int[] slotAt = new int[cellCount];
+        int[] region = new int[cellCount];
+        for (int depth = 0; !current.isEmpty(); depth++) {
+            for (int i = 0; i < current.size(); i++) {
+                int state = current.get(i);
+                if (isSet(visited, state)) continue;
+
+                int pattern = state / cellCount;
+                Arrays.fill(slotAt, -1);
+                for (int slot = 0, rest = pattern; slot < tileCount; slot++, rest /= cellCount) {
+                    slotAt[rest % cellCount] = slot;
+                }
+                if (distances[pattern] == UNSET) {
+                    distances[pattern] = (byte) depth;
+                }
+
+                int regionSize = 0;
+                region[regionSize++] = state % cellCount;
+                set(visited, state);
+                for (int r = 0; r < regionSize; r++) {
+                    int gap = region[r];
+                    for (int cell : neighbours[gap]) {
+                        int slot = slotAt[cell];
+                        if (slot >= 0) {
+                            int moved = (pattern + (gap - cell) * weights[slot]) * cellCount + cell;
+                            if (!isSet(visited, moved)) next.add(moved);
+                        } else {
+                            int shifted = pattern * cellCount + cell;
+                            if (!isSet(visited, shifted)) {
+                                set(visited, shifted);
+                                region[regionSize++] = cell;
+                            }
+                        }
+                    }
+                }
+            }
+            IntQueue swap = current;
+            current = next;
+            next = swap;
+            next.clear();
+        }
+
+        return new PatternDatabase(gridSize, tiles, ByteBuffer.wrap(distances));
+    }
+
+    public int[] getTiles() {
+        return tiles.clone();
+    }
+
+    int weight(int slot) {
+        return weights[slot];
+    }
+
+    int indexOf(int[] positions) {
+        int index = 0;
+        for (int slot = 0; slot < tiles.length; slot++) {
+            index += positions[tiles[slot]] * weights[slot];
+        }
+        return index;
+    }
+
+    int lookup(int index) {
+        return data.get(index) & 0xFF;
+    }
+
+    int cellCount() {
+        return cellCount;
+    }
+
+    static int[][] neighbours(int gridSize) {
+        int cellCount = gridSize * gridSize;
+        int[][] result = new int[cellCount][];
+        for (int cell = 0; cell < cellCount; cell++) {
+            int row = cell / gridSize, col = cell % gridSize;
+            int[] list = new int[4];
+            int count = 0;
+            if (row > 0) list[count++] = cell - gridSize;
+            if (row < gridSize - 1) list[count++] = cell + gridSize;
+            if (col > 0) list[count++] = cell - 1;
+            if (col < gridSize - 1) list[count++] = cell + 1;
+            result[cell] = Arrays.copyOf(list, count);
+        }
+        return result;
+    }
+
+    private static boolean isSet(long[] bits, int index) {
+        return (bits[index >>> 6] & (1L << index)) != 0;
+    }
+
+    private static void set(long[] bits, int index) {
+        bits[index >>> 6] |= 1L << index;
+    }
+
+    private static final class IntQueue {
+        private int[] items = new int[1024];
+        private int size;
+
+        void add(int value) {
+            if (size == items.length) {
+                items = Arrays.copyOf(items, size * 2);
+            }
+            items[size++] = value;
+        }
+
+        int get(int index) {
+            return items[index];
+        }
+
+        int size() {
+            return size;
+        }
+
+        boolean isEmpty() {
+            return size == 0;
+        }
+
+        void clear() {
+            size = 0;
+        }
+    }
+}
@@ -0,0 +1,80 @@
+package com.puzzlegame.core;
+
+/**
+ * Union-find over pieces {@code 0..count-1}, with union by size and path
+ * halving, so {@link #find} is effectively O(1). Each group's members also
+ * form a circular list through {@link #next}, spliced in O(1) on every
+ * union, so a whole group can be walked without scanning all pieces.
+ */
+public final class PieceGroups {
+    private final int[] parent;
+    private final int[] size;
+    private final int[] next;
+    private int groupCount;
+
+    public PieceGroups(int count) {
+        parent = new int[count];
+        size = new int[count];
+        next = new int[count];
+        reset();
+    }
+
+    /** Puts every piece back in a group of its own. */
+    public void reset() {
+        for (int i = 0; i < parent.length; i++) {
+            parent[i] = i;
+            size[i] = 1;
+            next[i] = i;
+        }
+        groupCount = parent.length;
+    }
+
+    public int getGroupCount() {
+        return groupCount;
+    }
+
+    public int find(int piece) {
+        while (parent[piece] != piece) {
+            parent[piece] = parent[parent[piece]];
+            piece = parent[piece];
+        }
+        return piece;
+    }
+
+    public boolean connected(int a, int b) {
+        return find(a) == find(b);
+    }
+
+    /** Number of pieces in the group holding {@code piece}. */
+    public int sizeOf(int piece) {
+        return size[find(piece)];
+    }
+
+    /**
+     * The member after {@code piece} in its group; following it from any
+     * member visits the whole group once and comes back to the start.
+     */
+    public int next(int piece) {
+        return next[piece];
+    }
+
+    /** Merges the groups of {@code a} and {@code b}; false if they were already one. */
+    public boolean union(int a, int b) {
+        int rootA = find(a);
+        int rootB = find(b);
+        if (rootA == rootB) return false;
+        if (size[rootA] < size[rootB]) {
+            int temp = rootA;
+            rootA = rootB;
+            rootB = temp;
+        }
+        parent[rootB] = rootA;
+        size[rootA] += size[rootB];
+        // Swapping the successors of one member from each ring joins the two rings.
+        int temp = next[a];
+        next[a] = next[b];
+        next[b] = temp;
+        groupCount--;
+        return true;
+    }
+}
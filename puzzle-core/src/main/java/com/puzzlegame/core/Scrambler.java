@@ -0,0 +1,98 @@
+package com.puzzlegame.core;
+
+import java.util.SplittableRandom;
+
+/**
+ * Seeded scramble generator. The same seed always gives the same board, so
+ * a game can be replayed or shared as (gridSize, seed).
+ *
+ * <p>Difficulty is set directly through the permutation's shape: how many
+ * cells start misplaced and how many cycles they form. A free-swap board
+ * needs exactly {@code misplaced - cycles} swaps. The permutation is built
+ * in O(n) without rejection, so a "scramble" can never come out already
+ * solved.
+ */
+public final class Scrambler {
+    private final SplittableRandom random;
+
+    public Scrambler(long seed) {
+        this.random = new SplittableRandom(seed);
+    }
+
+    /**
+     * About as many cycles as a uniformly random permutation has (ln n),
+     * but with no piece left in place.
+     */
+    public static int defaultCycleCount(int cellCount) {
+        if (cellCount < 2) return 0;
+        int cycles = (int) Math.round(Math.log(cellCount));
+        return Math.max(1, Math.min(cycles, cellCount / 2));
+    }
+
+    public int[] scramble(int cellCount) {
+        return scramble(cellCount, cellCount, defaultCycleCount(cellCount));
+    }
+
+    /**
+     * Returns a permutation of {@code 0..cellCount-1} in which exactly
+     * {@code misplaced} cells are out of place, arranged in exactly
+     * {@code cycles} cycles.
+     */
+    public int[] scramble(int cellCount, int misplaced, int cycles) {
+        if (misplaced < 0 || misplaced > cellCount || misplaced == 1) {
+            throw new IllegalArgumentException("Cannot misplace " + misplaced + " of " + cellCount + " cells");
+        }
+        if (misplaced == 0 ? cycles != 0 : cycles < 1 || cycles * 2 > misplaced) {
+            throw new IllegalArgumentException(misplaced + " cells cannot form " + cycles + " cycles");
+        }
+
+        int[] cells = new int[cellCount];
+        for (int i = 0; i < cellCount; i++) {
+            cells[i] = i;
+        }
+        if (misplaced == 0) return cells;
+
+        // Partial Fisher-Yates: the first `misplaced` entries become a random
+        // sample of cells in random order.
+        int[] chosen = cells.clone();
+        for (int i = 0; i < misplaced; i++) {
+            int j = i + random.nextInt(cellCount - i);
+            int temp = chosen[i];
+            chosen[i] = chosen[j];
+            chosen[j] = temp;
+        }
+
+        // Every cycle needs two cells; spread the rest over random cycles.
+        int[] lengths = new int[cycles];
+        for (int c = 0; c < cycles; c++) {
+            lengths[c] = 2;
+        }
+        for (int extra = misplaced - cycles * 2; extra > 0; extra--) {
+            lengths[random.nextInt(cycles)]++;
+        }
+
+        int start = 0;
+        for (int length : lengths) {
+            for (int k = 0; k < length; k++) {
+                int cell = chosen[start + k];
+                cells[cell] = chosen[start + (k + 1) % length];
+            }
+            start += length;
+        }
+        return cells;
+    }
+
+    /** Uniform shuffle with the generator's own stream, for modes with extra constraints. */
+    public void shuffle(int[] array) {
+        for (int i = array.length - 1; i > 0; i--) {
+            int j = random.nextInt(i + 1);
+            int temp = array[i];
+            array[i] = array[j];
+            array[j] = temp;
+        }
+    }
+
+    public int nextInt(int bound) {
+        return random.nextInt(bound);
+    }
+}
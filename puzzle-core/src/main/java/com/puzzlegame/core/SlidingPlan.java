@@ -0,0 +1,45 @@
+package com.puzzlegame.core;
+
+import java.util.Arrays;
+
+/**
+ * Remaining moves of a solver plan, kept valid as the player moves. A move
+ * that follows the plan pops it; any other move pushes its own undo, so the
+ * plan always solves the board. After a detour it is only an upper bound: a
+ * shorter solution may exist that only re-running the solver would find.
+ */
+public final class SlidingPlan {
+    private int[] stack;
+    private int size;
+
+    /** {@code moves} as returned by {@link SlidingSolver#solve}, first move first. */
+    public SlidingPlan(int[] moves) {
+        stack = new int[Math.max(moves.length, 8)];
+        for (int i = 0; i < moves.length; i++) {
+            stack[i] = moves[moves.length - 1 - i];
+        }
+        size = moves.length;
+    }
+
+    /** The cell whose tile should slide next, or -1 when the plan is finished. */
+    public int next() {
+        return size == 0 ? -1 : stack[size - 1];
+    }
+
+    public int remaining() {
+        return size;
+    }
+
+    /** Records that the tile at {@code cell} slid into the gap at {@code gap}. */
+    public void onSlide(int cell, int gap) {
+        if (size > 0 && stack[size - 1] == cell) {
+            size--;
+            return;
+        }
+        if (size == stack.length) {
+            stack = Arrays.copyOf(stack, size * 2);
+        }
+        // The gap is now at cell; sliding the tile back from gap undoes it.
+        stack[size++] = gap;
+    }
+}
@@ -0,0 +1,120 @@
+package com.puzzlegame.core;
+
+/**
+ * Rules for the sliding-tile mode. The layout is a {@link Board} permutation
+ * where the last tile ({@code cellCount - 1}) is the empty cell, so the goal
+ * has the gap in the bottom-right corner.
+ */
+public final class SlidingPuzzle {
+
+    private SlidingPuzzle() {
+    }
+
+    public static int blankTile(int gridSize) {
+        return gridSize * gridSize - 1;
+    }
+
+    public static boolean areAdjacent(int gridSize, int cell1, int cell2) {
+        int row1 = cell1 / gridSize, col1 = cell1 % gridSize;
+        int row2 = cell2 / gridSize, col2 = cell2 % gridSize;
+        return Math.abs(row1 - row2) + Math.abs(col1 - col2) == 1;
+    }
+
+    /**
+     * Every slide is a transposition that moves the gap by one cell, so a
+     * layout is reachable exactly when the permutation parity matches the
+     * parity of the gap's distance from its home cell.
+     */
+    public static boolean isSolvable(int[] cells, int gridSize) {
+        int blank = blankTile(gridSize);
+        int blankCell = indexOf(cells, blank);
+        return permutationParity(cells) == (distance(gridSize, blankCell, blank) & 1);
+    }
+
+    /**
+     * Returns a uniformly random solvable layout for {@code seed}. Unsolvable
+     * draws are fixed with one swap rather than re-rolled, and a draw that
+     * happens to be solved gets one slide of the gap.
+     */
+    public static int[] scramble(int gridSize, long seed) {
+        Scrambler scrambler = new Scrambler(seed);
+        int[] cells = new int[gridSize * gridSize];
+        for (int i = 0; i < cells.length; i++) {
+            cells[i] = i;
+        }
+        scrambler.shuffle(cells);
+        makeSolvable(cells, gridSize);
+
+        if (isSorted(cells) && cells.length > 1) {
+            int gap = cells.length - 1;
+            int cell = scrambler.nextInt(2) == 0 ? gap - gridSize : gap - 1;
+            cells[gap] = cells[cell];
+            cells[cell] = blankTile(gridSize);
+        }
+        return cells;
+    }
+
+    /** Flips the parity by swapping two non-gap tiles if the layout is unreachable. */
+    public static void makeSolvable(int[] cells, int gridSize) {
+        if (cells.length < 3 || isSolvable(cells, gridSize)) return;
+        int blank = blankTile(gridSize);
+        int first = cells[0] == blank ? 1 : 0;
+        int second = cells[first + 1] == blank ? first + 2 : first + 1;
+        int temp = cells[first];
+        cells[first] = cells[second];
+        cells[second] = temp;
+    }
+
+    /**
+     * Cheap fallback hint: the neighbour of the gap whose tile gains the most
+     * Manhattan distance towards home by sliding. Returns -1 if solved.
+     */
+    public static int suggestSlide(int[] cells, int gridSize) {
+        if (isSorted(cells)) return -1;
+
+        int blank = blankTile(gridSize);
+        int gap = indexOf(cells, blank);
+        int best = -1;
+        int bestDelta = Integer.MAX_VALUE;
+        for (int cell : PatternDatabase.neighbours(gridSize)[gap]) {
+            int tile = cells[cell];
+            int delta = distance(gridSize, gap, tile) - distance(gridSize, cell, tile);
+            if (delta < bestDelta) {
+                bestDelta = delta;
+                best = cell;
+            }
+        }
+        return best;
+    }
+
+    static int distance(int gridSize, int cell1, int cell2) {
+        return Math.abs(cell1 / gridSize - cell2 / gridSize) + Math.abs(cell1 % gridSize - cell2 % gridSize);
+    }
+
+    private static boolean isSorted(int[] cells) {
+        for (int i = 0; i < cells.length; i++) {
+            if (cells[i] != i) return false;
+        }
+        return true;
+    }
+
+    static int permutationParity(int[] cells) {
+        boolean[] visited = new boolean[cells.length];
+        int cycles = 0;
+        for (int i = 0; i < cells.length; i++) {
+            if (visited[i]) continue;
+            cycles++;
+            for (int cell = i; !visited[cell]; cell = cells[cell]) {
+                visited[cell] = true;
+            }
+        }
+        return (cells.length - cycles) & 1;
+    }
+
+    static int indexOf(int[] cells, int tile) {
+        for (int i = 0; i < cells.length; i++) {
+            if (cells[i] == tile) return i;
+        }
+        return -1;
+    }
+}
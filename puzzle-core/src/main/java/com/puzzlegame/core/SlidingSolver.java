@@ -0,0 +1,177 @@
+package com.puzzlegame.core;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.Arrays;
+
+/**
+ * Optimal sliding-tile solver: IDA* guided by the sum of disjoint
+ * {@link PatternDatabase}s. The heuristic is updated incrementally per move,
+ * so each expanded node costs one table lookup.
+ */
+public final class SlidingSolver {
+
+    /** Disjoint tile groups per grid size; together they cover every non-gap tile. */
+    private static final int[][][] PARTITIONS = {
+        null,
+        null,
+        {{0, 1, 2}},
+        {{0, 1, 2, 3}, {4, 5, 6, 7}},
+        {{0, 1, 4, 5, 8}, {2, 3, 6, 7, 11}, {9, 10, 12, 13, 14}},
+    };
+
+    private static final int FOUND = -1;
+
+    private final int gridSize;
+    private final int cellCount;
+    private final PatternDatabase[] databases;
+    private final int[][] neighbours;
+    private final int[] patternOf;
+    private final int[] weightOf;
+
+    private int[] cells;
+    private int[] indices;
+    private int[] path;
+    private int solutionLength;
+    private long nodes;
+    private long nodeBudget;
+
+    public SlidingSolver(int gridSize, PatternDatabase... databases) {
+        this.gridSize = gridSize;
+        this.cellCount = gridSize * gridSize;
+        this.databases = databases.clone();
+        this.neighbours = PatternDatabase.neighbours(gridSize);
+        this.patternOf = new int[cellCount];
+        this.weightOf = new int[cellCount];
+        Arrays.fill(patternOf, -1);
+        for (int p = 0; p < databases.length; p++) {
+            int[] tiles = databases[p].getTiles();
+            for (int slot = 0; slot < tiles.length; slot++) {
+                patternOf[tiles[slot]] = p;
+                weightOf[tiles[slot]] = databases[p].weight(slot);
+            }
+        }
+        for (int tile = 0; tile < cellCount - 1; tile++) {
+            if (patternOf[tile] < 0) {
+                throw new IllegalArgumentException("Tile " + tile + " is not covered by any pattern");
+            }
+        }
+    }
+
+    public static boolean isSupported(int gridSize) {
+        return gridSize < PARTITIONS.length && PARTITIONS[gridSize] != null;
+    }
+
+    /** Loads (or builds and caches) the standard databases for {@code gridSize} under {@code dir}. */
+    public static SlidingSolver load(int gridSize, File dir) throws IOException {
+        if (!isSupported(gridSize)) {
+            throw new IllegalArgumentException("No pattern partition for " + gridSize + "x" + gridSize);
+        }
+        int[][] partition = PARTITIONS[gridSize];
+        PatternDatabase[] databases = new PatternDatabase[partition.length];
+        for (int p = 0; p < partition.length; p++) {
+            File file = new File(dir, "pdb-" + gridSize + "-" + p + ".bin");
+            databases[p] = PatternDatabase.loadOrBuild(gridSize, partition[p], file);
+        }
+        return new SlidingSolver(gridSize, databases);
+    }
+
+    public int getGridSize() {
+        return gridSize;
+    }
+
+    public int estimate(int[] layout) {
+        int[] positions = positionsOf(layout);
+        int h = 0;
+        for (PatternDatabase database : databases) {
+            h += database.lookup(database.indexOf(positions));
+        }
+        return h;
+    }
+
+    /**
+     * Returns the cells whose tiles slide into the gap, in order, for a
+     * shortest solution of {@code layout}; an empty array if already solved,
+     * or {@code null} if more than {@code nodeBudget} nodes would be needed.
+     */
+    public int[] solve(int[] layout, long nodeBudget) {
+        if (!SlidingPuzzle.isSolvable(layout, gridSize)) {
+            throw new IllegalArgumentException("Layout is not solvable");
+        }
+
+        cells = layout.clone();
+        int[] positions = positionsOf(cells);
+        indices = new int[databases.length];
+        int h = 0;
+        for (int p = 0; p < databases.length; p++) {
+            indices[p] = databases[p].indexOf(positions);
+            h += databases[p].lookup(indices[p]);
+        }
+
+        this.nodes = 0;
+        this.nodeBudget = nodeBudget;
+        int blank = SlidingPuzzle.indexOf(cells, cellCount - 1);
+        int bound = h;
+        while (true) {
+            path = new int[Math.max(bound, 1)];
+            int result = search(blank, -1, 0, h, bound);
+            if (result == FOUND) {
+                return Arrays.copyOf(path, solutionLength);
+            }
+            if (result == Integer.MAX_VALUE || nodes > nodeBudget) {
+                return null;
+            }
+            bound = result;
+        }
+    }
+
+    public long getLastNodeCount() {
+        return nodes;
+    }
+
+    private int search(int blank, int previous, int g, int h, int bound) {
+        int f = g + h;
+        if (f > bound) return f;
+        if (h == 0) {
+            solutionLength = g;
+            return FOUND;
+        }
+        if (++nodes > nodeBudget) return Integer.MAX_VALUE;
+
+        int min = Integer.MAX_VALUE;
+        for (int cell : neighbours[blank]) {
+            if (cell == previous) continue;
+
+            int tile = cells[cell];
+            int p = patternOf[tile];
+            PatternDatabase database = databases[p];
+            int oldIndex = indices[p];
+            int newIndex = oldIndex + (blank - cell) * weightOf[tile];
+            int newH = h - database.lookup(oldIndex) + database.lookup(newIndex);
+
+            cells[blank] = tile;
+            cells[cell] = cellCount - 1;
+            indices[p] = newIndex;
+            path[g] = cell;
+
+            int result = search(cell, blank, g + 1, newH, bound);
+
+            cells[cell] = tile;
+            cells[blank] = cellCount - 1;
+            indices[p] = oldIndex;
+
+            if (result == FOUND) return FOUND;
+            if (nodes > nodeBudget) return Integer.MAX_VALUE;
+            if (result < min) min = result;
+        }
+        return min;
+    }
+
+    private int[] positionsOf(int[] layout) {
+        int[] positions = new int[layout.length];
+        for (int cell = 0; cell < layout.length; cell++) {
+            positions[layout[cell]] = cell;
+        }
+        return positions;
+    }
+}
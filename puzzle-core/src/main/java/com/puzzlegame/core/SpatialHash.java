@@ -0,0 +1,104 @@
+package com.puzzlegame.core;
+
+import java.util.Arrays;
+
+/**
+ * Uniform grid of buckets over a rectangle, holding items {@code 0..capacity-1}
+ * by a point each. Buckets are intrusive doubly linked lists, so putting,
+ * moving and removing an item are O(1) and nothing is allocated after
+ * construction. Points outside the rectangle go to the nearest edge bucket.
+ *
+ * <p>Walk a region with {@link #columnAt}/{@link #rowAt} for its bucket
+ * range, then {@link #first} and {@link #next} for each bucket; callers
+ * check the exact geometry themselves.
+ */
+public final class SpatialHash {
+    public static final int NONE = -1;
+
+    private final float cellSize;
+    private final int columns;
+    private final int rows;
+    private final int[] heads;
+    private final int[] next;
+    private final int[] previous;
+    private final int[] bucketOf;
+
+    public SpatialHash(int capacity, float width, float height, float cellSize) {
+        if (!(cellSize > 0)) {
+            throw new IllegalArgumentException("cellSize must be positive: " + cellSize);
+        }
+        this.cellSize = cellSize;
+        this.columns = Math.max(1, (int) Math.ceil(width / cellSize));
+        this.rows = Math.max(1, (int) Math.ceil(height / cellSize));
+        heads = new int[columns * rows];
+        next = new int[capacity];
+        previous = new int[capacity];
+        bucketOf = new int[capacity];
+        clear();
+    }
+
+    public void clear() {
+        Arrays.fill(heads, NONE);
+        Arrays.fill(bucketOf, NONE);
+    }
+
+    public int getColumns() {
+        return columns;
+    }
+
+    public int getRows() {
+        return rows;
+    }
+
+    /** The bucket column containing {@code x}, clamped to the grid. */
+    public int columnAt(float x) {
+        return clamp((int) Math.floor(x / cellSize), columns);
+    }
+
+    public int rowAt(float y) {
+        return clamp((int) Math.floor(y / cellSize), rows);
+    }
+
+    /** Adds {@code item} at ({@code x}, {@code y}), or moves it there. */
+    public void put(int item, float x, float y) {
+        int bucket = rowAt(y) * columns + columnAt(x);
+        if (bucketOf[item] == bucket) return;
+        remove(item);
+        int head = heads[bucket];
+        next[item] = head;
+        previous[item] = NONE;
+        if (head != NONE) {
+            previous[head] = item;
+        }
+        heads[bucket] = item;
+        bucketOf[item] = bucket;
+    }
+
+    public void remove(int item) {
+        int bucket = bucketOf[item];
+        if (bucket == NONE) return;
+        if (previous[item] != NONE) {
+            next[previous[item]] = next[item];
+        } else {
+            heads[bucket] = next[item];
+        }
+        if (next[item] != NONE) {
+            previous[next[item]] = previous[item];
+        }
+        bucketOf[item] = NONE;
+    }
+
+    /** The first item in bucket ({@code column}, {@code row}), or {@link #NONE}. */
+    public int first(int column, int row) {
+        return heads[row * columns + column];
+    }
+
+    /** The item after {@code item} in its bucket, or {@link #NONE}. */
+    public int next(int item) {
+        return next[item];
+    }
+
+    private static int clamp(int index, int count) {
+        return index < 0 ? 0 : index >= count ? count - 1 : index;
+    }
+}
@@ -0,0 +1,235 @@
+package com.puzzlegame.core;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.zip.CRC32;
+
+/**
+ * Completed games in an append-only log. Each game adds one small CRC'd
+ * entry at the end of the file; nothing already written is rewritten. The
+ * per-grid aggregates live in memory and are updated as games are added.
+ *
+ * <p>Once enough games have piled up, the log is compacted: the aggregates
+ * are written as one summary entry per grid size and mode, followed by the
+ * most recent games (marked as already summarized), so opening the store
+ * reads a bounded amount no matter how many games were played. A torn last
+ * entry is dropped on open.
+ */
+public final class StatsStore {
+    private static final int MAGIC = 0x505A5354; // "PZST"
+    private static final int VERSION = 1;
+    private static final int FILE_HEADER_BYTES = 8;
+    // type byte + payload length + payload + CRC
+    private static final int ENTRY_OVERHEAD = 1 + 4 + 4;
+
+    private static final byte TYPE_GAME = 1;
+    private static final byte TYPE_FOLDED_GAME = 2;
+    private static final byte TYPE_SUMMARY = 3;
+
+    static final int KEEP_RECENT = 100;
+    static final int COMPACT_AFTER = 256;
+
+    private final File file;
+    private final Map<Integer, GridStats> stats = new TreeMap<>();
+    private final ArrayDeque<GameRecord> recent = new ArrayDeque<>();
+    private FileChannel channel;
+    private int unfoldedGames;
+
+    private StatsStore(File file) {
+        this.file = file;
+    }
+
+    public static StatsStore open(File file) throws IOException {
+        StatsStore store = new StatsStore(file);
+        store.load();
+        return store;
+    }
+
+    public synchronized void record(GameRecord record) throws IOException {
+        ByteBuffer entry = entry(TYPE_GAME, GameRecord.ENCODED_BYTES);
+        record.encode(entry);
+        finishEntry(entry);
+        long end = channel.size();
+        while (entry.hasRemaining()) {
+            end += channel.write(entry, end);
+        }
+
+        add(record, true);
+        if (unfoldedGames >= COMPACT_AFTER) {
+            compact();
+        }
+    }
+
+    /** A copy of the totals for one grid size and mode, or null if none was played. */
+    public synchronized GridStats get(int gridSize, boolean sliding) {
+        GridStats grid = stats.get(key(gridSize, sliding));
+        return grid != null ? grid.copy() : null;
+    }
+
+    /**
+     * Copies of every grid size and mode played so far, smallest grid first;
+     * later games do not change them, so they can be handed to another thread.
+     */
+    public synchronized List<GridStats> getAll() {
+        List<GridStats> all = new ArrayList<>(stats.size());
+        for (GridStats grid : stats.values()) {
+            all.add(grid.copy());
+        }
+        return Collections.unmodifiableList(all);
+    }
+
+    /** Up to the last {@value #KEEP_RECENT} games, oldest first. */
+    public synchronized List<GameRecord> getRecent() {
+        return Collections.unmodifiableList(new ArrayList<>(recent));
+    }
+
+    public synchronized void compact() throws IOException {
+        int size = FILE_HEADER_BYTES;
+        for (GridStats grid : stats.values()) {
+            size += ENTRY_OVERHEAD + grid.encodedSize();
+        }
+        size += recent.size() * (ENTRY_OVERHEAD + GameRecord.ENCODED_BYTES);
+
+        ByteBuffer out = ByteBuffer.allocate(size);
+        out.putInt(MAGIC);
+        out.putInt(VERSION);
+        for (GridStats grid : stats.values()) {
+            ByteBuffer entry = entry(TYPE_SUMMARY, grid.encodedSize());
+            grid.encode(entry);
+            finishEntry(entry);
+            out.put(entry);
+        }
+        for (GameRecord record : recent) {
+            ByteBuffer entry = entry(TYPE_FOLDED_GAME, GameRecord.ENCODED_BYTES);
+            record.encode(entry);
+            finishEntry(entry);
+            out.put(entry);
+        }
+        out.flip();
+
+        File tmp = new File(file.getPath() + ".tmp");
+        try (FileOutputStream stream = new FileOutputStream(tmp)) {
+            FileChannel tmpChannel = stream.getChannel();
+            while (out.hasRemaining()) {
+                tmpChannel.write(out);
+            }
+            tmpChannel.force(false);
+        }
+        channel.close();
+        if (!tmp.renameTo(file)) {
+            channel = new RandomAccessFile(file, "rw").getChannel();
+            throw new IOException("Could not move " + tmp + " to " + file);
+        }
+        channel = new RandomAccessFile(file, "rw").getChannel();
+        unfoldedGames = 0;
+    }
+
+    public synchronized void close() throws IOException {
+        channel.close();
+    }
+
+    private void load() throws IOException {
+        channel = new RandomAccessFile(file, "rw").getChannel();
+        long size = channel.size();
+        if (size < FILE_HEADER_BYTES) {
+            writeHeader();
+            return;
+        }
+
+        ByteBuffer data = ByteBuffer.allocate((int) Math.min(size, Integer.MAX_VALUE));
+        while (data.hasRemaining()) {
+            if (channel.read(data, data.position()) < 0) break;
+        }
+        data.flip();
+        if (data.getInt() != MAGIC || data.getInt() != VERSION) {
+            writeHeader();
+            return;
+        }
+
+        int validEnd = data.position();
+        while (data.remaining() >= ENTRY_OVERHEAD) {
+            int start = data.position();
+            byte type = data.get();
+            int length = data.getInt();
+            if (length < 0 || length + 4 > data.remaining()) break;
+            ByteBuffer payload = data.slice();
+            payload.limit(length);
+            data.position(data.position() + length);
+            if (data.getInt() != (int) crc(data.array(), start, 1 + 4 + length)) break;
+
+            try {
+                if (type == TYPE_SUMMARY) {
+                    GridStats summary = GridStats.decode(payload);
+                    stats.computeIfAbsent(key(summary.getGridSize(), summary.isSliding()),
+                        k -> new GridStats(summary.getGridSize(), summary.isSliding())).add(summary);
+                } else if (type == TYPE_GAME || type == TYPE_FOLDED_GAME) {
+                    add(GameRecord.decode(payload), type == TYPE_GAME);
+                }
+            } catch (RuntimeException e) {
+                break;
+            }
+            validEnd = data.position();
+        }
+
+        if (validEnd < size) {
+            channel.truncate(validEnd);
+        }
+    }
+
+    private void writeHeader() throws IOException {
+        ByteBuffer header = ByteBuffer.allocate(FILE_HEADER_BYTES);
+        header.putInt(MAGIC);
+        header.putInt(VERSION);
+        header.flip();
+        channel.truncate(0);
+        while (header.hasRemaining()) {
+            channel.write(header, header.position());
+        }
+    }
+
+    /** {@code summarize} is false for games already counted in a summary entry. */
+    private void add(GameRecord record, boolean summarize) {
+        if (summarize) {
+            stats.computeIfAbsent(key(record.getGridSize(), record.isSliding()),
+                k -> new GridStats(record.getGridSize(), record.isSliding())).add(record);
+            unfoldedGames++;
+        }
+        recent.addLast(record);
+        if (recent.size() > KEEP_RECENT) {
+            recent.removeFirst();
+        }
+    }
+
+    private static ByteBuffer entry(byte type, int payloadLength) {
+        ByteBuffer entry = ByteBuffer.allocate(ENTRY_OVERHEAD + payloadLength);
+        entry.put(type);
+        entry.putInt(payloadLength);
+        return entry;
+    }
+
+    private static void finishEntry(ByteBuffer entry) {
+        entry.putInt((int) crc(entry.array(), 0, entry.position()));
+        entry.flip();
+    }
+
+    // Grid sizes in key order, swap mode before sliding.
+    private static int key(int gridSize, boolean sliding) {
+        return gridSize * 2 + (sliding ? 1 : 0);
+    }
+
+    private static long crc(byte[] bytes, int offset, int length) {
+        CRC32 crc = new CRC32();
+        crc.update(bytes, offset, length);
+        return crc.getValue();
+    }
+}
@@ -0,0 +1,52 @@
+package com.puzzlegame.core;
+
+/**
+ * Square board geometry: the largest whole piece size that fits the
+ * available space, and arithmetic mapping between cells and pixels.
+ */
+public final class TileGeometry {
+    private final int gridSize;
+    private final int pieceSize;
+    private final int boardSize;
+
+    public TileGeometry(int gridSize, int availableSize) {
+        if (gridSize < 1) {
+            throw new IllegalArgumentException("gridSize must be positive: " + gridSize);
+        }
+        this.gridSize = gridSize;
+        this.pieceSize = Math.max(1, availableSize / gridSize);
+        this.boardSize = pieceSize * gridSize;
+    }
+
+    public int getGridSize() {
+        return gridSize;
+    }
+
+    public int getPieceSize() {
+        return pieceSize;
+    }
+
+    public int getBoardSize() {
+        return boardSize;
+    }
+
+    public int cellLeft(int cell) {
+        return (cell % gridSize) * pieceSize;
+    }
+
+    public int cellTop(int cell) {
+        return (cell / gridSize) * pieceSize;
+    }
+
+    /** Returns the row or column containing board-local {@code position}, clamped to the board. */
+    public int indexAt(float position) {
+        if (position < 0) return 0;
+        return Math.min(gridSize - 1, (int) (position / pieceSize));
+    }
+
+    /** Returns the cell under board-local {@code (x, y)}, or -1 outside the board. */
+    public int cellAt(float x, float y) {
+        if (x < 0 || y < 0 || x >= boardSize || y >= boardSize) return -1;
+        return (int) (y / pieceSize) * gridSize + (int) (x / pieceSize);
+    }
+}
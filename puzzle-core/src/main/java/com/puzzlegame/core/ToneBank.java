@@ -0,0 +1,159 @@
+package com.puzzlegame.core;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+
+/**
+ * The game's fixed sound set, rendered once to 16-bit PCM. Rendering uses a
+ * sine lookup table instead of {@code Math.sin} per sample, and the result is
+ * stored in the cache directory so later launches only read the bytes.
+ */
+public final class ToneBank {
+    public static final int SAMPLE_RATE = 44100;
+
+    // {startFreq, endFreq, durationMs}, indexed by the app's AudioEngine.SOUND_* ids.
+    static final int[][] SOUNDS = {
+        {600, 800, 80},
+        {400, 600, 120},
+        {300, 600, 150},
+        {523, 523, 100}, {659, 659, 100}, {784, 784, 100},
+        {523, 523, 120}, {587, 587, 120}, {659, 659, 120},
+        {784, 784, 120}, {880, 880, 120}, {1047, 1047, 120},
+    };
+
+    private static final int FILE_MAGIC = 0x544F4E45; // "TONE"
+    private static final int FORMAT_VERSION = 1;
+    private static final double AMPLITUDE = 32767 * 0.3;
+
+    private static final int TABLE_BITS = 12;
+    private static final int TABLE_SIZE = 1 << TABLE_BITS;
+    private static final float[] SINE_TABLE = new float[TABLE_SIZE + 1];
+
+    static {
+        for (int i = 0; i <= TABLE_SIZE; i++) {
+            SINE_TABLE[i] = (float) Math.sin(2 * Math.PI * i / TABLE_SIZE);
+        }
+    }
+
+    private final short[][] pcm;
+
+    private ToneBank(short[][] pcm) {
+        this.pcm = pcm;
+    }
+
+    /** Reads the bank from {@code file}, or renders it and writes it there if missing or stale. */
+    public static ToneBank loadOrRender(File file) {
+        short[][] loaded = read(file);
+        if (loaded != null) {
+            return new ToneBank(loaded);
+        }
+
+        ToneBank bank = render();
+        try {
+            bank.write(file);
+        } catch (IOException ignored) {
+            // The bank still works from memory; it is just rendered again next launch.
+        }
+        return bank;
+    }
+
+    public static ToneBank render() {
+        short[][] pcm = new short[SOUNDS.length][];
+        for (int id = 0; id < SOUNDS.length; id++) {
+            pcm[id] = renderTable(SOUNDS[id][0], SOUNDS[id][1], SOUNDS[id][2]);
+        }
+        return new ToneBank(pcm);
+    }
+
+    public short[] get(int soundId) {
+        return pcm[soundId];
+    }
+
+    public int size() {
+        return pcm.length;
+    }
+
+    static short[] renderTable(int startFreq, int endFreq, int durationMs) {
+        int numSamples = (durationMs * SAMPLE_RATE) / 1000;
+        short[] out = new short[numSamples];
+        for (int i = 0; i < numSamples; i++) {
+            double freq = startFreq + (endFreq - startFreq) * ((double) i / numSamples);
+            // Phase in cycles; only the fractional part indexes the table.
+            double cycles = freq * i / SAMPLE_RATE;
+            double position = (cycles - Math.floor(cycles)) * TABLE_SIZE;
+            int index = (int) position;
+            float fraction = (float) (position - index);
+            float sample = SINE_TABLE[index] + (SINE_TABLE[index + 1] - SINE_TABLE[index]) * fraction;
+            out[i] = (short) (sample * envelope(i, numSamples) * AMPLITUDE);
+        }
+        return out;
+    }
+
+    private static double envelope(int i, int numSamples) {
+        if (i < numSamples * 0.1) {
+            return i / (numSamples * 0.1);
+        } else if (i > numSamples * 0.7) {
+            return (numSamples - i) / (numSamples * 0.3);
+        }
+        return 1.0;
+    }
+
+    /** Changes whenever the sound table or render settings do, invalidating old files. */
+    private static int fingerprint() {
+        int hash = FORMAT_VERSION;
+        hash = hash * 31 + SAMPLE_RATE;
+        hash = hash * 31 + TABLE_SIZE;
+        for (int[] sound : SOUNDS) {
+            for (int value : sound) {
+                hash = hash * 31 + value;
+            }
+        }
+        return hash;
+    }
+
+    private static short[][] read(File file) {
+        if (!file.isFile()) return null;
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(new FileInputStream(file)))) {
+            if (in.readInt() != FILE_MAGIC || in.readInt() != fingerprint()) return null;
+            int count = in.readInt();
+            if (count != SOUNDS.length) return null;
+
+            short[][] pcm = new short[count][];
+            for (int id = 0; id < count; id++) {
+                int length = in.readInt();
+                if (length != (SOUNDS[id][2] * SAMPLE_RATE) / 1000) return null;
+                pcm[id] = new short[length];
+                for (int i = 0; i < length; i++) {
+                    pcm[id][i] = in.readShort();
+                }
+            }
+            return pcm;
+        } catch (IOException e) {
+            return null;
+        }
+    }
+
+    private void write(File file) throws IOException {
+        File tmp = new File(file.getPath() + ".tmp");
+        try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(tmp)))) {
+            out.writeInt(FILE_MAGIC);
+            out.writeInt(fingerprint());
+            out.writeInt(pcm.length);
+            for (short[] samples : pcm) {
+                out.writeInt(samples.length);
+                for (short sample : samples) {
+                    out.writeShort(sample);
+                }
+            }
+        }
+        if (!tmp.renameTo(file)) {
+            throw new IOException("Could not move " + tmp + " to " + file);
+        }
+    }
+}
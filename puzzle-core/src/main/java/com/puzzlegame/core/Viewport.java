@@ -0,0 +1,116 @@
+package com.puzzlegame.core;
+
+/**
+ * Zoom and pan over a square board laid out at {@code (left, top, size)} in
+ * view pixels. A point {@code p} of that layout is shown at
+ * {@code p * scale + translate}. Scale 1 is the plain layout; when zoomed
+ * the board always covers the view along any axis it is larger than, and
+ * keeps its layout centre along an axis it is smaller than.
+ */
+public final class Viewport {
+    private int viewWidth, viewHeight;
+    private float left, top, size;
+    private float maxScale = 1;
+    private float scale = 1;
+    private float translateX, translateY;
+
+    /** Lays out the board and resets to the unzoomed view. */
+    public void setContent(int viewWidth, int viewHeight, float left, float top, float size, float maxScale) {
+        this.viewWidth = viewWidth;
+        this.viewHeight = viewHeight;
+        this.left = left;
+        this.top = top;
+        this.size = size;
+        this.maxScale = Math.max(1, maxScale);
+        reset();
+    }
+
+    public void reset() {
+        scale = 1;
+        translateX = 0;
+        translateY = 0;
+    }
+
+    public float getScale() {
+        return scale;
+    }
+
+    public float getTranslateX() {
+        return translateX;
+    }
+
+    public float getTranslateY() {
+        return translateY;
+    }
+
+    public boolean isZoomed() {
+        return scale > 1;
+    }
+
+    /** Scales by {@code factor} about the view point ({@code focusX}, {@code focusY}). */
+    public void zoomBy(float factor, float focusX, float focusY) {
+        float next = Math.max(1, Math.min(scale * factor, maxScale));
+        float applied = next / scale;
+        translateX = focusX - (focusX - translateX) * applied;
+        translateY = focusY - (focusY - translateY) * applied;
+        scale = next;
+        clamp();
+    }
+
+    public void panBy(float dx, float dy) {
+        setTranslation(translateX + dx, translateY + dy);
+    }
+
+    public void setTranslation(float x, float y) {
+        translateX = x;
+        translateY = y;
+        clamp();
+    }
+
+    public float minTranslateX() {
+        return minTranslate(viewWidth, left);
+    }
+
+    public float maxTranslateX() {
+        return maxTranslate(viewWidth, left);
+    }
+
+    public float minTranslateY() {
+        return minTranslate(viewHeight, top);
+    }
+
+    public float maxTranslateY() {
+        return maxTranslate(viewHeight, top);
+    }
+
+    /** Maps a view x coordinate back to the unzoomed layout. */
+    public float toLayoutX(float viewX) {
+        return (viewX - translateX) / scale;
+    }
+
+    public float toLayoutY(float viewY) {
+        return (viewY - translateY) / scale;
+    }
+
+    private float minTranslate(int viewExtent, float start) {
+        float scaled = size * scale;
+        if (scaled <= viewExtent) return centred(start);
+        return viewExtent - (start + size) * scale;
+    }
+
+    private float maxTranslate(int viewExtent, float start) {
+        float scaled = size * scale;
+        if (scaled <= viewExtent) return centred(start);
+        return -start * scale;
+    }
+
+    // Keeps the board's centre where the layout put it.
+    private float centred(float start) {
+        return (start + size / 2) * (1 - scale);
+    }
+
+    private void clamp() {
+        translateX = Math.max(minTranslateX(), Math.min(translateX, maxTranslateX()));
+        translateY = Math.max(minTranslateY(), Math.min(translateY, maxTranslateY()));
+    }
+}
@@ -0,0 +1,100 @@
+package com.puzzlegame.core;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.Test;
+
+public class BoardTest {
+
+    @Test
+    public void newBoardIsSolved() {
+        Board board = new Board(4);
+        assertEquals(16, board.getCellCount());
+        assertEquals(16, board.getCorrectCount());
+        assertTrue(board.isSolved());
+        for (int cell = 0; cell < board.getCellCount(); cell++) {
+            assertEquals(cell, board.getTileAt(cell));
+            assertEquals(cell, board.getCellOf(cell));
+        }
+    }
+
+    @Test
+    public void swapsKeepCountsInLineWithTheCells() {
+        Board board = new Board(5);
+        Scrambler scrambler = new Scrambler(7);
+        board.setPermutation(scrambler.scramble(board.getCellCount()));
+        for (int i = 0; i < 500; i++) {
+            board.swap(scrambler.nextInt(board.getCellCount()), scrambler.nextInt(board.getCellCount()));
+            assertConsistent(board);
+        }
+    }
+
+    @Test
+    public void swappingTwiceRestoresTheBoard() {
+        Board board = new Board(3);
+        board.setPermutation(new int[] {1, 0, 2, 3, 4, 5, 8, 6, 7});
+        int[] before = board.copyPermutation();
+        board.swap(2, 7);
+        board.swap(2, 7);
+        assertArrayEquals(before, board.copyPermutation());
+        assertEquals(4, board.getCorrectCount());
+    }
+
+    @Test
+    public void listenerSeesSwapsResetsAndTheSolve() {
+        Board board = new Board(2);
+        List<String> events = new ArrayList<>();
+        board.setListener(new Board.Listener() {
+            @Override
+            public void onCellsSwapped(int cell1, int cell2, int correctCount) {
+                events.add("swap " + cell1 + " " + cell2 + " " + correctCount);
+            }
+
+            @Override
+            public void onBoardReset(int correctCount) {
+                events.add("reset " + correctCount);
+            }
+
+            @Override
+            public void onSolved() {
+                events.add("solved");
+            }
+        });
+
+        board.setPermutation(new int[] {1, 0, 3, 2});
+        board.swap(1, 1);
+        board.swap(0, 1);
+        assertFalse(board.isSolved());
+        board.swap(2, 3);
+
+        assertEquals(List.of("reset 0", "swap 0 1 2", "swap 2 3 4", "solved"), events);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void rejectsRepeatedTiles() {
+        new Board(2).setPermutation(new int[] {0, 1, 1, 3});
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void rejectsWrongLength() {
+        new Board(2).setPermutation(new int[] {0, 1, 2});
+    }
+
+    private static void assertConsistent(Board board) {
+        int correct = 0;
+        for (int cell = 0; cell < board.getCellCount(); cell++) {
+            int tile = board.getTileAt(cell);
+            assertEquals("position of tile " + tile, cell, board.getCellOf(tile));
+            assertEquals(tile == cell, board.isCorrect(cell));
+            if (tile == cell) correct++;
+        }
+        assertEquals(correct, board.getCorrectCount());
+        assertEquals(correct == board.getCellCount(), board.isSolved());
+    }
+}
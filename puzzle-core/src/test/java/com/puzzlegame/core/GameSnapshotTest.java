@@ -0,0 +1,96 @@
+package com.puzzlegame.core;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+public class GameSnapshotTest {
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    @Test
+    public void roundTripsThroughAFile() throws IOException {
+        for (int gridSize = 2; gridSize <= 12; gridSize++) {
+            File file = new File(folder.getRoot(), "save-" + gridSize + ".bin");
+            GameSnapshot written = snapshot(gridSize, gridSize % 2 == 0);
+            written.write(file);
+            assertFalse("temporary file left behind", new File(file.getPath() + ".tmp").exists());
+
+            GameSnapshot read = GameSnapshot.read(file);
+            assertEquals(written.getGridSize(), read.getGridSize());
+            assertEquals(written.isSliding(), read.isSliding());
+            assertArrayEquals(written.getPermutation(), read.getPermutation());
+            assertEquals(written.getMoves(), read.getMoves());
+            assertEquals(written.getElapsedNanos(), read.getElapsedNanos());
+            assertEquals(written.getSeed(), read.getSeed());
+            assertEquals(written.getImageStamp(), read.getImageStamp());
+        }
+    }
+
+    @Test
+    public void anyFlippedByteReadsAsNoSnapshot() throws IOException {
+        File file = new File(folder.getRoot(), "save.bin");
+        snapshot(5, false).write(file);
+        int length = (int) file.length();
+
+        for (int i = 0; i < length; i++) {
+            flip(file, i);
+            assertNull("byte " + i, GameSnapshot.read(file));
+            flip(file, i);
+        }
+        assertNotNull(GameSnapshot.read(file));
+    }
+
+    @Test
+    public void truncatedFileReadsAsNoSnapshot() throws IOException {
+        File file = new File(folder.getRoot(), "save.bin");
+        snapshot(4, true).write(file);
+        try (RandomAccessFile raf = new RandomAccessFile(file, "rw")) {
+            raf.setLength(raf.length() - 3);
+        }
+        assertNull(GameSnapshot.read(file));
+    }
+
+    @Test
+    public void missingFileReadsAsNoSnapshot() {
+        assertNull(GameSnapshot.read(new File(folder.getRoot(), "none.bin")));
+    }
+
+    @Test
+    public void packsCellsTightly() {
+        assertEquals(2, GameSnapshot.bitsPerCell(4));
+        assertEquals(4, GameSnapshot.bitsPerCell(9));
+        assertEquals(4, GameSnapshot.bitsPerCell(16));
+        assertEquals(5, GameSnapshot.bitsPerCell(25));
+        ByteBuffer encoded = snapshot(12, false).encode();
+        GameSnapshot decoded = GameSnapshot.decode(encoded);
+        assertArrayEquals(snapshot(12, false).getPermutation(), decoded.getPermutation());
+    }
+
+    private static GameSnapshot snapshot(int gridSize, boolean sliding) {
+        int[] permutation = new Scrambler(gridSize).scramble(gridSize * gridSize);
+        return new GameSnapshot(gridSize, sliding, permutation, 37 * gridSize,
+            123_456_789_000L + gridSize, 0xC0FFEEL + gridSize, 1_700_000_000_000L);
+    }
+
+    private static void flip(File file, int position) throws IOException {
+        try (RandomAccessFile raf = new RandomAccessFile(file, "rw")) {
+            raf.seek(position);
+            int value = raf.read();
+            raf.seek(position);
+            raf.write(value ^ 0xFF);
+        }
+    }
+}
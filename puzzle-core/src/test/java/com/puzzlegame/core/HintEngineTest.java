@@ -0,0 +1,64 @@
+package com.puzzlegame.core;
+
+import static org.junit.Assert.assertEquals;
+
+import org.junit.Test;
+
+public class HintEngineTest {
+
+    @Test
+    public void countsCyclesIncludingFixedPoints() {
+        Board board = new Board(3);
+        // (0 1 2) (3 4) and four fixed points.
+        board.setPermutation(new int[] {1, 2, 0, 4, 3, 5, 6, 7, 8});
+        HintEngine hints = board.getHints();
+        assertEquals(6, hints.getCycleCount());
+        assertEquals(3, hints.getMovesLeft());
+    }
+
+    @Test
+    public void tracksCyclesAcrossSwaps() {
+        Board board = new Board(4);
+        Scrambler scrambler = new Scrambler(11);
+        board.setPermutation(scrambler.scramble(board.getCellCount()));
+        for (int i = 0; i < 300; i++) {
+            board.swap(scrambler.nextInt(board.getCellCount()), scrambler.nextInt(board.getCellCount()));
+            assertEquals(countCycles(board.copyPermutation()), board.getHints().getCycleCount());
+        }
+    }
+
+    @Test
+    public void followingTheHintsSolvesInMovesLeftSwaps() {
+        Board board = new Board(5);
+        board.setPermutation(new Scrambler(3).scramble(board.getCellCount()));
+        HintEngine hints = board.getHints();
+        int expected = hints.getMovesLeft();
+
+        int swaps = 0;
+        for (int cell = hints.suggestCell(); cell >= 0; cell = hints.suggestCell()) {
+            int partner = hints.suggestPartner(cell);
+            int movesLeft = hints.getMovesLeft();
+            board.swap(cell, partner);
+            assertEquals(cell, board.getTileAt(cell));
+            assertEquals(movesLeft - 1, hints.getMovesLeft());
+            swaps++;
+        }
+
+        assertEquals(expected, swaps);
+        assertEquals(0, hints.getMovesLeft());
+        assertEquals(-1, hints.suggestCell());
+    }
+
+    private static int countCycles(int[] cells) {
+        boolean[] visited = new boolean[cells.length];
+        int cycles = 0;
+        for (int start = 0; start < cells.length; start++) {
+            if (visited[start]) continue;
+            cycles++;
+            for (int cell = start; !visited[cell]; cell = cells[cell]) {
+                visited[cell] = true;
+            }
+        }
+        return cycles;
+    }
+}
@@ -0,0 +1,120 @@
+package com.puzzlegame.core;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotEquals;
+import static org.junit.Assert.assertTrue;
+
+import org.junit.Test;
+
+public class JigsawTableTest {
+
+    private static final float PIECE = 40f;
+
+    @Test
+    public void scatterKeepsPiecesOnTheTable() {
+        JigsawTable table = new JigsawTable(6, PIECE, 500, 700);
+        table.scatter(3);
+        assertEquals(36, table.getGroupCount());
+        for (int piece = 0; piece < table.getPieceCount(); piece++) {
+            assertTrue(table.getX(piece) >= 0 && table.getX(piece) <= 500 - PIECE);
+            assertTrue(table.getY(piece) >= 0 && table.getY(piece) <= 700 - PIECE);
+        }
+    }
+
+    @Test
+    public void pieceAtFindsTheTopmostPiece() {
+        JigsawTable table = new JigsawTable(4, PIECE, 400, 400);
+        table.scatter(1);
+        for (int piece = 0; piece < table.getPieceCount(); piece++) {
+            table.lift(piece);
+            assertEquals(piece, table.pieceAtDepth(table.getPieceCount() - 1));
+            assertEquals(piece, table.pieceAt(table.getX(piece) + PIECE / 2, table.getY(piece) + PIECE / 2));
+        }
+        assertEquals(JigsawTable.NONE, table.pieceAt(-10, -10));
+    }
+
+    @Test
+    public void snappingEveryPieceMakesOneGroup() {
+        int gridSize = 5;
+        JigsawTable table = new JigsawTable(gridSize, PIECE, 600, 600);
+        table.scatter(8);
+        float originX = 100;
+        float originY = 100;
+        table.moveGroup(0, originX - table.getX(0), originY - table.getY(0));
+
+        for (int piece = 1; piece < table.getPieceCount(); piece++) {
+            // Drop each piece a little off its place; snapping pulls it in.
+            float targetX = originX + (piece % gridSize) * PIECE + PIECE * 0.1f;
+            float targetY = originY + (piece / gridSize) * PIECE - PIECE * 0.1f;
+            table.lift(piece);
+            table.moveGroup(piece, targetX - table.getX(piece), targetY - table.getY(piece));
+            assertTrue("piece " + piece + " did not join", table.snap(piece) > 0);
+            assertEquals(table.getPieceCount() - piece, table.getGroupCount());
+        }
+
+        assertTrue(table.isComplete());
+        assertEquals(table.getPieceCount(), table.getGroups().sizeOf(0));
+        for (int piece = 0; piece < table.getPieceCount(); piece++) {
+            assertEquals(table.getX(0) + (piece % gridSize) * PIECE, table.getX(piece), 1e-3f);
+            assertEquals(table.getY(0) + (piece / gridSize) * PIECE, table.getY(piece), 1e-3f);
+        }
+    }
+
+    @Test
+    public void farPiecesDoNotSnap() {
+        JigsawTable table = new JigsawTable(3, PIECE, 600, 600);
+        table.scatter(2);
+        table.moveGroup(0, 100 - table.getX(0), 100 - table.getY(0));
+        table.moveGroup(1, 100 + PIECE * 1.5f - table.getX(1), 100 - table.getY(1));
+        for (int piece = 2; piece < table.getPieceCount(); piece++) {
+            table.moveGroup(piece, 400 - table.getX(piece), 400 + piece * PIECE / 3 - table.getY(piece));
+        }
+        assertEquals(0, table.snap(1));
+        assertFalse(table.getGroups().connected(0, 1));
+    }
+
+    @Test
+    public void joinedPiecesMoveTogether() {
+        JigsawTable table = new JigsawTable(3, PIECE, 600, 600);
+        table.scatter(5);
+        table.moveGroup(0, 100 - table.getX(0), 100 - table.getY(0));
+        table.moveGroup(3, 100 - table.getX(3), 100 + PIECE - table.getY(3));
+        table.snap(3);
+        assertTrue(table.getGroups().connected(0, 3));
+
+        table.moveGroup(0, 50, -20);
+        assertEquals(150, table.getX(3), 1e-3f);
+        assertEquals(80 + PIECE, table.getY(3), 1e-3f);
+        assertEquals(3, table.pieceAt(160, 90 + PIECE));
+    }
+
+    @Test
+    public void resizingKeepsJoinsAndStacking() {
+        JigsawTable table = new JigsawTable(3, PIECE, 600, 600);
+        table.scatter(6);
+        table.moveGroup(0, 500 - table.getX(0), 500 - table.getY(0));
+        table.moveGroup(1, 500 + PIECE - table.getX(1), 500 - table.getY(1));
+        table.snap(1);
+        table.lift(4);
+
+        JigsawTable resized = table.resized(PIECE / 2, 200, 300);
+        assertEquals(PIECE / 2, resized.getPieceSize(), 0);
+        assertEquals(table.getGroupCount(), resized.getGroupCount());
+        assertTrue(resized.getGroups().connected(0, 1));
+        assertEquals(resized.getX(0) + PIECE / 2, resized.getX(1), 1e-3f);
+        assertEquals(resized.getY(0), resized.getY(1), 1e-3f);
+        for (int depth = 0; depth < table.getPieceCount(); depth++) {
+            assertEquals(table.pieceAtDepth(depth), resized.pieceAtDepth(depth));
+        }
+        // The pair scales to x = 250 on a 200-wide table and is pulled back on as one.
+        assertEquals(200 - PIECE / 2, resized.getX(1), 1e-3f);
+        for (int piece = 0; piece < resized.getPieceCount(); piece++) {
+            assertTrue(resized.getX(piece) >= 0 && resized.getX(piece) <= 200 - PIECE / 2);
+            assertTrue(resized.getY(piece) >= 0 && resized.getY(piece) <= 300 - PIECE / 2);
+            assertNotEquals(JigsawTable.NONE,
+                resized.pieceAt(resized.getX(piece) + PIECE / 4, resized.getY(piece) + PIECE / 4));
+        }
+        assertEquals(4, resized.pieceAt(resized.getX(4) + 1, resized.getY(4) + 1));
+    }
+}
@@ -0,0 +1,62 @@
+package com.puzzlegame.core;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.util.HashSet;
+import java.util.Set;
+
+import org.junit.Test;
+
+public class PieceGroupsTest {
+
+    @Test
+    public void unionJoinsGroupsOnce() {
+        PieceGroups groups = new PieceGroups(6);
+        assertEquals(6, groups.getGroupCount());
+        assertTrue(groups.union(0, 1));
+        assertTrue(groups.union(2, 3));
+        assertTrue(groups.union(1, 3));
+        assertFalse(groups.union(0, 2));
+
+        assertEquals(3, groups.getGroupCount());
+        assertTrue(groups.connected(0, 3));
+        assertFalse(groups.connected(0, 4));
+        assertEquals(4, groups.sizeOf(2));
+        assertEquals(1, groups.sizeOf(5));
+    }
+
+    @Test
+    public void nextVisitsEveryMemberOnce() {
+        PieceGroups groups = new PieceGroups(10);
+        groups.union(7, 2);
+        groups.union(4, 9);
+        groups.union(2, 9);
+
+        Set<Integer> seen = new HashSet<>();
+        int member = 4;
+        do {
+            assertTrue("visited " + member + " twice", seen.add(member));
+            member = groups.next(member);
+        } while (member != 4);
+        assertEquals(Set.of(2, 4, 7, 9), seen);
+        assertEquals(0, groups.next(0));
+    }
+
+    @Test
+    public void resetSplitsEveryGroup() {
+        PieceGroups groups = new PieceGroups(4);
+        groups.union(0, 1);
+        groups.union(1, 2);
+        groups.union(2, 3);
+        assertEquals(1, groups.getGroupCount());
+
+        groups.reset();
+        assertEquals(4, groups.getGroupCount());
+        for (int piece = 0; piece < 4; piece++) {
+            assertEquals(piece, groups.find(piece));
+            assertEquals(piece, groups.next(piece));
+        }
+    }
+}
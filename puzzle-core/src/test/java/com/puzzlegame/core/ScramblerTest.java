@@ -0,0 +1,89 @@
+package com.puzzlegame.core;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.util.Arrays;
+
+import org.junit.Test;
+
+public class ScramblerTest {
+
+    @Test
+    public void sameSeedGivesSameBoard() {
+        assertArrayEquals(new Scrambler(42).scramble(36), new Scrambler(42).scramble(36));
+        assertFalse(Arrays.equals(new Scrambler(42).scramble(36), new Scrambler(43).scramble(36)));
+    }
+
+    @Test
+    public void defaultScrambleLeavesNoCellInPlace() {
+        for (int cellCount = 2; cellCount <= 64; cellCount++) {
+            int[] cells = new Scrambler(cellCount).scramble(cellCount);
+            assertPermutation(cells);
+            for (int cell = 0; cell < cellCount; cell++) {
+                assertNotEquals("cell " + cell + " of " + cellCount, cell, cells[cell]);
+            }
+            assertEquals(Scrambler.defaultCycleCount(cellCount), countCycles(cells));
+        }
+    }
+
+    @Test
+    public void hitsExactMisplacedAndCycleCounts() {
+        Scrambler scrambler = new Scrambler(5);
+        for (int misplaced = 2; misplaced <= 25; misplaced++) {
+            for (int cycles = 1; cycles * 2 <= misplaced; cycles++) {
+                int[] cells = scrambler.scramble(25, misplaced, cycles);
+                assertPermutation(cells);
+                int wrong = 0;
+                for (int cell = 0; cell < cells.length; cell++) {
+                    if (cells[cell] != cell) wrong++;
+                }
+                assertEquals(misplaced, wrong);
+                // Fixed points count as cycles of their own.
+                assertEquals(cycles + 25 - misplaced, countCycles(cells));
+            }
+        }
+    }
+
+    @Test
+    public void noMisplacedCellsIsTheSolvedBoard() {
+        int[] cells = new Scrambler(1).scramble(9, 0, 0);
+        for (int cell = 0; cell < cells.length; cell++) {
+            assertEquals(cell, cells[cell]);
+        }
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void rejectsOneMisplacedCell() {
+        new Scrambler(1).scramble(9, 1, 1);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void rejectsCyclesShorterThanTwo() {
+        new Scrambler(1).scramble(9, 4, 3);
+    }
+
+    private static void assertPermutation(int[] cells) {
+        boolean[] seen = new boolean[cells.length];
+        for (int tile : cells) {
+            assertTrue("tile " + tile, tile >= 0 && tile < cells.length && !seen[tile]);
+            seen[tile] = true;
+        }
+    }
+
+    private static int countCycles(int[] cells) {
+        boolean[] visited = new boolean[cells.length];
+        int cycles = 0;
+        for (int start = 0; start < cells.length; start++) {
+            if (visited[start]) continue;
+            cycles++;
+            for (int cell = start; !visited[cell]; cell = cells[cell]) {
+                visited[cell] = true;
+            }
+        }
+        return cycles;
+    }
+}
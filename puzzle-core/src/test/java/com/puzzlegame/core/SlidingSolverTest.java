@@ -0,0 +1,171 @@
+package com.puzzlegame.core;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import java.io.File;
+import java.io.IOException;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+public class SlidingSolverTest {
+
+    // Every 8-puzzle position is at most this many slides from the goal.
+    private static final int MAX_3X3_SLIDES = 31;
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    @Test
+    public void plansReachTheGoalOn2x2() throws IOException {
+        SlidingSolver solver = SlidingSolver.load(2, folder.getRoot());
+        for (long seed = 0; seed < 20; seed++) {
+            assertPlanSolves(solver, SlidingPuzzle.scramble(2, seed));
+        }
+    }
+
+    @Test
+    public void plansReachTheGoalOn3x3() throws IOException {
+        SlidingSolver solver = SlidingSolver.load(3, folder.getRoot());
+        for (long seed = 0; seed < 20; seed++) {
+            int[] moves = assertPlanSolves(solver, SlidingPuzzle.scramble(3, seed));
+            assertTrue("plan of " + moves.length, moves.length <= MAX_3X3_SLIDES);
+        }
+    }
+
+    @Test
+    public void plansReachTheGoalOn4x4() throws IOException {
+        SlidingSolver solver = SlidingSolver.load(4, folder.getRoot());
+        Scrambler scrambler = new Scrambler(9);
+        for (int i = 0; i < 5; i++) {
+            int[] cells = solved(4);
+            int walk = randomWalk(cells, 4, 40, scrambler);
+            int[] moves = assertPlanSolves(solver, cells);
+            assertTrue("plan of " + moves.length + " after " + walk, moves.length <= walk);
+        }
+    }
+
+    @Test
+    public void shortestPlanIsNoLongerThanTheScramble() throws IOException {
+        SlidingSolver solver = SlidingSolver.load(3, folder.getRoot());
+        Scrambler scrambler = new Scrambler(4);
+        for (int i = 0; i < 20; i++) {
+            int[] cells = solved(3);
+            int walk = randomWalk(cells, 3, 12, scrambler);
+            int[] moves = assertPlanSolves(solver, cells);
+            assertTrue(moves.length <= walk);
+            assertEquals(walk & 1, moves.length & 1);
+        }
+    }
+
+    @Test
+    public void cachedDatabasesGiveTheSamePlan() throws IOException {
+        File dir = folder.getRoot();
+        int[] layout = SlidingPuzzle.scramble(3, 17);
+        int[] first = SlidingSolver.load(3, dir).solve(layout, Long.MAX_VALUE);
+        int[] second = SlidingSolver.load(3, dir).solve(layout, Long.MAX_VALUE);
+        assertEquals(first.length, second.length);
+    }
+
+    @Test
+    public void solvedLayoutNeedsNoMoves() throws IOException {
+        SlidingSolver solver = SlidingSolver.load(3, folder.getRoot());
+        assertEquals(0, solver.solve(solved(3), Long.MAX_VALUE).length);
+    }
+
+    @Test
+    public void giveUpOverBudget() throws IOException {
+        SlidingSolver solver = SlidingSolver.load(3, folder.getRoot());
+        int[] layout = SlidingPuzzle.scramble(3, 1);
+        assertNull(solver.solve(layout, 0));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void rejectsUnsolvableLayout() throws IOException {
+        SlidingSolver solver = SlidingSolver.load(3, folder.getRoot());
+        solver.solve(new int[] {1, 0, 2, 3, 4, 5, 6, 7, 8}, Long.MAX_VALUE);
+    }
+
+    @Test
+    public void planStaysValidAfterADetour() throws IOException {
+        SlidingSolver solver = SlidingSolver.load(3, folder.getRoot());
+        int[] cells = SlidingPuzzle.scramble(3, 23);
+        SlidingPlan plan = new SlidingPlan(solver.solve(cells, Long.MAX_VALUE));
+        int planned = plan.remaining();
+
+        // Slide some tile that is not the planned one, then follow the plan.
+        int gap = SlidingPuzzle.indexOf(cells, SlidingPuzzle.blankTile(3));
+        for (int cell = 0; cell < cells.length; cell++) {
+            if (cell != plan.next() && SlidingPuzzle.areAdjacent(3, cell, gap)) {
+                slide(cells, 3, cell);
+                plan.onSlide(cell, gap);
+                break;
+            }
+        }
+        assertEquals(planned + 1, plan.remaining());
+
+        while (plan.next() >= 0) {
+            int cell = plan.next();
+            gap = SlidingPuzzle.indexOf(cells, SlidingPuzzle.blankTile(3));
+            slide(cells, 3, cell);
+            plan.onSlide(cell, gap);
+        }
+        assertSolved(cells);
+    }
+
+    private static int[] assertPlanSolves(SlidingSolver solver, int[] layout) {
+        int gridSize = solver.getGridSize();
+        int[] moves = solver.solve(layout, Long.MAX_VALUE);
+        assertNotNull(moves);
+        assertTrue(solver.estimate(layout) <= moves.length);
+        int[] cells = layout.clone();
+        for (int cell : moves) {
+            slide(cells, gridSize, cell);
+        }
+        assertSolved(cells);
+        return moves;
+    }
+
+    // Slides the tile at cell into the adjacent gap.
+    private static void slide(int[] cells, int gridSize, int cell) {
+        int gap = SlidingPuzzle.indexOf(cells, SlidingPuzzle.blankTile(gridSize));
+        assertTrue("cell " + cell + " is not next to the gap at " + gap,
+            SlidingPuzzle.areAdjacent(gridSize, cell, gap));
+        cells[gap] = cells[cell];
+        cells[cell] = SlidingPuzzle.blankTile(gridSize);
+    }
+
+    // Slides random tiles into the gap, never straight back; returns the walk length.
+    private static int randomWalk(int[] cells, int gridSize, int steps, Scrambler scrambler) {
+        int previous = -1;
+        int gap = SlidingPuzzle.indexOf(cells, SlidingPuzzle.blankTile(gridSize));
+        for (int i = 0; i < steps; i++) {
+            int cell;
+            do {
+                cell = scrambler.nextInt(cells.length);
+            } while (cell == previous || !SlidingPuzzle.areAdjacent(gridSize, cell, gap));
+            slide(cells, gridSize, cell);
+            previous = gap;
+            gap = cell;
+        }
+        return steps;
+    }
+
+    private static int[] solved(int gridSize) {
+        int[] cells = new int[gridSize * gridSize];
+        for (int i = 0; i < cells.length; i++) {
+            cells[i] = i;
+        }
+        return cells;
+    }
+
+    private static void assertSolved(int[] cells) {
+        for (int cell = 0; cell < cells.length; cell++) {
+            assertEquals("cell " + cell, cell, cells[cell]);
+        }
+    }
+}
@@ -0,0 +1,64 @@
+package com.puzzlegame.core;
+
+import static org.junit.Assert.assertEquals;
+
+import java.util.HashSet;
+import java.util.Set;
+
+import org.junit.Test;
+
+public class SpatialHashTest {
+
+    @Test
+    public void filesItemsByBucket() {
+        SpatialHash hash = new SpatialHash(8, 100, 50, 10);
+        assertEquals(10, hash.getColumns());
+        assertEquals(5, hash.getRows());
+
+        hash.put(0, 5, 5);
+        hash.put(1, 8, 2);
+        hash.put(2, 55, 25);
+        assertEquals(Set.of(0, 1), bucket(hash, 0, 0));
+        assertEquals(Set.of(2), bucket(hash, 5, 2));
+        assertEquals(Set.of(), bucket(hash, 1, 0));
+    }
+
+    @Test
+    public void movingAndRemovingUnlinkItems() {
+        SpatialHash hash = new SpatialHash(4, 40, 40, 10);
+        hash.put(0, 1, 1);
+        hash.put(1, 2, 2);
+        hash.put(2, 3, 3);
+
+        hash.put(1, 35, 35);
+        assertEquals(Set.of(0, 2), bucket(hash, 0, 0));
+        assertEquals(Set.of(1), bucket(hash, 3, 3));
+
+        hash.remove(2);
+        hash.remove(2);
+        assertEquals(Set.of(0), bucket(hash, 0, 0));
+
+        hash.clear();
+        assertEquals(Set.of(), bucket(hash, 0, 0));
+        assertEquals(Set.of(), bucket(hash, 3, 3));
+    }
+
+    @Test
+    public void pointsOffTheRectangleGoToEdgeBuckets() {
+        SpatialHash hash = new SpatialHash(2, 30, 30, 10);
+        hash.put(0, -25, 100);
+        hash.put(1, 1000, -1);
+        assertEquals(Set.of(0), bucket(hash, 0, 2));
+        assertEquals(Set.of(1), bucket(hash, 2, 0));
+        assertEquals(0, hash.columnAt(-1));
+        assertEquals(2, hash.rowAt(31));
+    }
+
+    private static Set<Integer> bucket(SpatialHash hash, int column, int row) {
+        Set<Integer> items = new HashSet<>();
+        for (int item = hash.first(column, row); item != SpatialHash.NONE; item = hash.next(item)) {
+            items.add(item);
+        }
+        return items;
+    }
+}
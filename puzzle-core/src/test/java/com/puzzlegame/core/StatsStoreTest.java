@@ -0,0 +1,159 @@
+package com.puzzlegame.core;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.util.List;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+public class StatsStoreTest {
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    @Test
+    public void aggregatesSurviveReopening() throws IOException {
+        File file = new File(folder.getRoot(), "stats.log");
+        StatsStore store = StatsStore.open(file);
+        for (int i = 0; i < 10; i++) {
+            store.record(game(3, false, i));
+        }
+        store.record(game(4, true, 0));
+        store.close();
+
+        store = StatsStore.open(file);
+        GridStats stats = store.get(3, false);
+        assertEquals(10, stats.getGames());
+        assertEquals(nanos(0), stats.getBestNanos());
+        assertEquals(moves(0), stats.getBestMoves());
+        assertEquals(1, store.get(4, true).getGames());
+        assertNull(store.get(4, false));
+
+        List<GridStats> all = store.getAll();
+        assertEquals(2, all.size());
+        assertEquals(3, all.get(0).getGridSize());
+        assertEquals(4, all.get(1).getGridSize());
+        assertEquals(11, store.getRecent().size());
+        store.close();
+    }
+
+    @Test
+    public void returnedStatsAreCopies() throws IOException {
+        StatsStore store = StatsStore.open(new File(folder.getRoot(), "stats.log"));
+        store.record(game(3, false, 5));
+        GridStats one = store.get(3, false);
+        List<GridStats> all = store.getAll();
+
+        store.record(game(3, false, 0));
+        assertEquals(1, one.getGames());
+        assertEquals(nanos(5), one.getBestNanos());
+        assertEquals(1, all.get(0).getGames());
+        assertEquals(moves(5), all.get(0).getMovesPercentile(50));
+        assertEquals(2, store.get(3, false).getGames());
+        store.close();
+    }
+
+    @Test
+    public void truncatedLastEntryIsDropped() throws IOException {
+        File file = new File(folder.getRoot(), "stats.log");
+        StatsStore store = StatsStore.open(file);
+        for (int i = 0; i < 5; i++) {
+            store.record(game(3, false, i));
+        }
+        store.close();
+        long complete = file.length();
+        try (RandomAccessFile raf = new RandomAccessFile(file, "rw")) {
+            raf.setLength(complete - 5);
+        }
+
+        store = StatsStore.open(file);
+        assertEquals(4, store.get(3, false).getGames());
+        assertEquals(4, store.getRecent().size());
+        long trimmed = file.length();
+        assertTrue(trimmed < complete - 5);
+
+        // New games go right after the last good entry.
+        store.record(game(3, false, 9));
+        store.close();
+        assertEquals(complete, file.length());
+        store = StatsStore.open(file);
+        assertEquals(5, store.get(3, false).getGames());
+        store.close();
+    }
+
+    @Test
+    public void damagedLastEntryIsDropped() throws IOException {
+        File file = new File(folder.getRoot(), "stats.log");
+        StatsStore store = StatsStore.open(file);
+        for (int i = 0; i < 3; i++) {
+            store.record(game(5, false, i));
+        }
+        store.close();
+        try (RandomAccessFile raf = new RandomAccessFile(file, "rw")) {
+            raf.seek(raf.length() - 10);
+            raf.write(raf.read() ^ 1);
+        }
+
+        store = StatsStore.open(file);
+        assertEquals(2, store.get(5, false).getGames());
+        store.close();
+    }
+
+    @Test
+    public void compactionKeepsTotalsAndBoundsTheFile() throws IOException {
+        File file = new File(folder.getRoot(), "stats.log");
+        StatsStore store = StatsStore.open(file);
+        int games = StatsStore.COMPACT_AFTER * 3 + 7;
+        for (int i = 0; i < games; i++) {
+            store.record(game(3 + i % 2, false, i));
+        }
+        GridStats before = store.get(3, false);
+        long gamesBefore = before.getGames();
+        long averageBefore = before.getAverageNanos();
+        long medianBefore = before.getMovesPercentile(50);
+        store.close();
+
+        long bound = 8 + (StatsStore.KEEP_RECENT + StatsStore.COMPACT_AFTER) * (9L + GameRecord.ENCODED_BYTES)
+            + 2 * 4096;
+        assertTrue("log is " + file.length() + " bytes", file.length() < bound);
+
+        store = StatsStore.open(file);
+        GridStats after = store.get(3, false);
+        assertEquals(gamesBefore, after.getGames());
+        assertEquals(nanos(0), after.getBestNanos());
+        assertEquals(averageBefore, after.getAverageNanos());
+        assertEquals(medianBefore, after.getMovesPercentile(50));
+        assertEquals(games, after.getGames() + store.get(4, false).getGames());
+
+        List<GameRecord> recent = store.getRecent();
+        assertEquals(StatsStore.KEEP_RECENT, recent.size());
+        assertEquals(moves(games - 1), recent.get(recent.size() - 1).getMoves());
+
+        // Explicit compaction is idempotent for the totals.
+        store.compact();
+        store.close();
+        store = StatsStore.open(file);
+        assertEquals(gamesBefore, store.get(3, false).getGames());
+        assertEquals(StatsStore.KEEP_RECENT, store.getRecent().size());
+        store.close();
+    }
+
+    private static GameRecord game(int gridSize, boolean sliding, int i) {
+        return new GameRecord(gridSize, sliding, moves(i), nanos(i), 0xABCDL, i, 1_700_000_000_000L + i);
+    }
+
+    private static int moves(int i) {
+        return 10 + i;
+    }
+
+    private static long nanos(int i) {
+        return 5_000_000_000L + i * 1_000_000L;
+    }
+}
@@ -0,0 +1,89 @@
+package com.puzzlegame.core;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+public class ToneBankTest {
+
+    // The sine table with linear interpolation stays within this many PCM units.
+    private static final int MAX_DEVIATION = 2;
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    @Test
+    public void renderedBankMatchesReference() {
+        assertMatchesReference(ToneBank.render());
+    }
+
+    @Test
+    public void cachedBankMatchesReference() throws IOException {
+        File file = new File(folder.getRoot(), "tones.bin");
+
+        ToneBank rendered = ToneBank.loadOrRender(file);
+        assertTrue("bank was not written", file.isFile());
+        long written = file.lastModified();
+
+        ToneBank loaded = ToneBank.loadOrRender(file);
+        assertEquals("bank was rendered again", written, file.lastModified());
+        assertEquals(ToneBank.SOUNDS.length, loaded.size());
+        for (int id = 0; id < loaded.size(); id++) {
+            assertArrayEquals("sound " + id, rendered.get(id), loaded.get(id));
+        }
+        assertMatchesReference(loaded);
+    }
+
+    @Test
+    public void staleFileIsRenderedAgain() throws IOException {
+        File file = new File(folder.getRoot(), "tones.bin");
+        try (FileOutputStream out = new FileOutputStream(file)) {
+            out.write(new byte[] {'T', 'O', 'N', 'E', 0, 0, 0, 0});
+        }
+
+        assertMatchesReference(ToneBank.loadOrRender(file));
+    }
+
+    private static void assertMatchesReference(ToneBank bank) {
+        assertEquals(ToneBank.SOUNDS.length, bank.size());
+        for (int id = 0; id < bank.size(); id++) {
+            int[] sound = ToneBank.SOUNDS[id];
+            short[] reference = renderReference(sound[0], sound[1], sound[2]);
+            short[] pcm = bank.get(id);
+            assertEquals("length of sound " + id, reference.length, pcm.length);
+            for (int i = 0; i < reference.length; i++) {
+                int deviation = Math.abs(reference[i] - pcm[i]);
+                assertTrue("sound " + id + " sample " + i + " off by " + deviation,
+                    deviation <= MAX_DEVIATION);
+            }
+        }
+    }
+
+    // The original per-sample Math.sin synthesizer the table version replaced.
+    private static short[] renderReference(int startFreq, int endFreq, int durationMs) {
+        int numSamples = (durationMs * ToneBank.SAMPLE_RATE) / 1000;
+        short[] out = new short[numSamples];
+        for (int i = 0; i < numSamples; i++) {
+            double freq = startFreq + (endFreq - startFreq) * ((double) i / numSamples);
+            double sample = Math.sin(2 * Math.PI * freq * i / ToneBank.SAMPLE_RATE);
+            double envelope;
+            if (i < numSamples * 0.1) {
+                envelope = i / (numSamples * 0.1);
+            } else if (i > numSamples * 0.7) {
+                envelope = (numSamples - i) / (numSamples * 0.3);
+            } else {
+                envelope = 1.0;
+            }
+            out[i] = (short) (sample * envelope * 32767 * 0.3);
+        }
+        return out;
+    }
+}